@@ -0,0 +1,70 @@
+package com.nathan.dogs.benchmark;
+
+import com.nathan.dogs.DogsApplication;
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.LeavingReason;
+import com.nathan.dogs.service.DogService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded datasets for benchmarks. Data is deterministic for a given size,
+ * so results are comparable between runs and releases.
+ */
+final class Datasets {
+
+    static final int SUPPLIERS = 50;
+    static final List<String> BREEDS = List.of("Labrador", "Spaniel", "German Shepherd", "Malinois", "Beagle");
+    static final List<String> CHARACTERISTICS = List.of("Nervous", "Dog aggressive", "Needs space", "Vocal", "Chews");
+
+    // prevent instantiation
+    private Datasets() {}
+
+    static CreateDogInput dog(int i) {
+        CurrentStatus status = CurrentStatus.values()[i % CurrentStatus.values().length];
+        return CreateDogInput.builder()
+                .name("Dog" + i)
+                .breed(BREEDS.get(i % BREEDS.size()))
+                .supplier("Supplier" + (i % SUPPLIERS))
+                .badgeId("B-" + i)
+                .currentStatus(status)
+                .gender(Gender.values()[i % Gender.values().length])
+                .birthDate(LocalDate.of(2010, 1, 1).plusDays(i % 5000))
+                .dateAcquired(LocalDate.of(2012, 1, 1).plusDays(i % 5000))
+                .leavingReason(status == CurrentStatus.LEFT ? LeavingReason.values()[i % LeavingReason.values().length] : null)
+                .kennellingCharacteristics(Set.copyOf(List.of(
+                        CHARACTERISTICS.get(i % CHARACTERISTICS.size()),
+                        CHARACTERISTICS.get((i / CHARACTERISTICS.size()) % CHARACTERISTICS.size()))))
+                .build();
+    }
+
+    /**
+     * Start the application without a web server, on its own in-memory database seeded with dogs.
+     * @param dogs: number of dogs to create.
+     * @return the running application context, to be closed by the caller.
+     */
+    static ConfigurableApplicationContext start(int dogs) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DogsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench" + dogs + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        DogService dogService = context.getBean(DogService.class);
+        for (int start = 0; start < dogs; start += 1000) {
+            dogService.createDogs(IntStream.range(start, Math.min(start + 1000, dogs))
+                    .mapToObj(Datasets::dog)
+                    .toList());
+        }
+        return context;
+    }
+}
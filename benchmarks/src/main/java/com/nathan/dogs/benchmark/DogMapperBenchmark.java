@@ -0,0 +1,44 @@
+package com.nathan.dogs.benchmark;
+
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.Dog;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping cost of a single dog, in both directions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DogMapperBenchmark {
+
+    private DogMapper dogMapper;
+    private CreateDogInput input;
+    private Dog dog;
+
+    @Setup
+    public void setUp() {
+        dogMapper = Mappers.getMapper(DogMapper.class);
+        input = Datasets.dog(42);
+        dog = dogMapper.toEntity(input);
+        dog.setId(42L);
+    }
+
+    @Benchmark
+    public Dog toEntity() {
+        return dogMapper.toEntity(input);
+    }
+
+    @Benchmark
+    public DogOutput toOutputDto() {
+        return dogMapper.toOutputDto(dog);
+    }
+}
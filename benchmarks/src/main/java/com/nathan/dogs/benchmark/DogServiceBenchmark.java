@@ -0,0 +1,70 @@
+package com.nathan.dogs.benchmark;
+
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.service.DogService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.nathan.dogs.constant.DogConstants.*;
+
+/**
+ * First page of the dog listing, unfiltered and with each filter type,
+ * against datasets of several sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DogServiceBenchmark {
+
+    private static final Map<String, Map<String, String>> FILTERS = Map.ofEntries(
+            Map.entry("none", Map.of()),
+            Map.entry(NAME, Map.of(NAME, "og12")),
+            Map.entry(BREED, Map.of(BREED, "spaniel")),
+            Map.entry(SUPPLIER, Map.of(SUPPLIER, "supplier1")),
+            Map.entry(CURRENT_STATUS, Map.of(CURRENT_STATUS, "IN_SERVICE,IN_TRAINING")),
+            Map.entry(GENDER, Map.of(GENDER, "FEMALE")),
+            Map.entry(LEAVING_REASON, Map.of(LEAVING_REASON, "RETIRED_REHOUSED")),
+            Map.entry("birthDate", Map.of(BIRTH_DATE_FROM, "2012-01-01", BIRTH_DATE_TO, "2013-12-31")),
+            Map.entry("dateAcquired", Map.of(DATE_ACQUIRED_FROM, "2015-01-01")),
+            Map.entry(CHARACTERISTIC, Map.of(CHARACTERISTIC, "Vocal,Chews")),
+            Map.entry(WITHOUT_CHARACTERISTIC, Map.of(CHARACTERISTIC, "Vocal", WITHOUT_CHARACTERISTIC, "Chews"))
+    );
+
+    @Param({"1000", "10000", "100000"})
+    public int dogs;
+
+    @Param({"none", NAME, BREED, SUPPLIER, CURRENT_STATUS, GENDER, LEAVING_REASON,
+            "birthDate", "dateAcquired", CHARACTERISTIC, WITHOUT_CHARACTERISTIC})
+    public String filter;
+
+    private ConfigurableApplicationContext context;
+    private DogService dogService;
+    private Map<String, String> params;
+    private final Pageable page = PageRequest.of(0, DEFAULT_PAGE_SIZE);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Datasets.start(dogs);
+        dogService = context.getBean(DogService.class);
+        params = FILTERS.get(filter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DogOutput> getDogs() {
+        return dogService.getDogs(params, page);
+    }
+}
@@ -0,0 +1,89 @@
+package com.nathan.dogs.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.Dog;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of writing a listing page of dogs in each response format, with and
+ * without gzip as applied by server.compression. Payload sizes are printed on setup.
+ * "json" is the serialization before Blackbird and the binary formats were added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    @Param({"json", "json-blackbird", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+    private Page<DogOutput> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        DogMapper dogMapper = Mappers.getMapper(DogMapper.class);
+        List<DogOutput> dogs = IntStream.range(0, pageSize)
+                .mapToObj(i -> {
+                    Dog dog = dogMapper.toEntity(Datasets.dog(i));
+                    dog.setId((long) i);
+                    return dogMapper.toOutputDto(dog);
+                })
+                .toList();
+        page = new PageImpl<>(dogs, PageRequest.of(0, pageSize), 100_000);
+
+        // Configured as the application's ObjectMapper is, see SerializationConfig
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        switch (format) {
+            case "json" -> builder.factory(new JsonFactory());
+            case "json-blackbird" -> builder.factory(new JsonFactory()).modulesToInstall(new BlackbirdModule());
+            case "smile" -> builder.factory(new SmileFactory()).modulesToInstall(new BlackbirdModule());
+            case "cbor" -> builder.factory(new CBORFactory()).modulesToInstall(new BlackbirdModule());
+            default -> throw new IllegalArgumentException(format);
+        }
+        writer = builder.build().writerFor(Page.class);
+
+        System.out.printf("%n%s, %d dogs: %d bytes, %d gzipped%n",
+                format, pageSize, serialize().length, serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package com.nathan.dogs.benchmark;
+
+import com.nathan.dogs.model.Supplier;
+import com.nathan.dogs.service.SupplierService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supplier resolution for existing suppliers (the common case on dog creation),
+ * and for new suppliers, which are inserted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SupplierServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int dogs;
+
+    private ConfigurableApplicationContext context;
+    private SupplierService supplierService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Datasets.start(dogs);
+        supplierService = context.getBean(SupplierService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Supplier findOrCreateSupplier_Existing() {
+        return supplierService.findOrCreateSupplier("Supplier" + (next++ % Datasets.SUPPLIERS));
+    }
+
+    @Benchmark
+    public Supplier findOrCreateSupplier_New() {
+        return supplierService.findOrCreateSupplier("New supplier " + next++);
+    }
+}
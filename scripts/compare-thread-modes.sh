@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Load comparison of platform-thread and virtual-thread request execution.
+# Builds the application, then for each mode starts it, seeds dogs, and drives
+# listing and lookup endpoints with hey (https://github.com/rakyll/hey),
+# recording throughput and p99 latency to target/thread-modes.md.
+#
+# Usage: scripts/compare-thread-modes.sh [concurrency] [duration] [dogs]
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-30s}
+DOGS=${3:-5000}
+PORT=8080
+BASE="http://localhost:$PORT/api/dogs/dogs"
+RESULTS=target/thread-modes.md
+
+command -v hey >/dev/null || { echo "hey is required: go install github.com/rakyll/hey@latest"; exit 1; }
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/dogs-*-exec.jar | head -1)
+
+seed() {
+  local batch
+  for ((i = 0; i < DOGS; i += 1000)); do
+    batch=$(seq "$i" $((i + 999 < DOGS - 1 ? i + 999 : DOGS - 1)) | awk '{
+      printf "%s{\"name\":\"Dog%d\",\"breed\":\"%s\",\"supplier\":\"Supplier%d\",\"currentStatus\":\"IN_SERVICE\"}",
+        (NR > 1 ? "," : ""), $1, ($1 % 2 ? "Spaniel" : "Labrador"), $1 % 20 }')
+    curl -sf -o /dev/null -H 'Content-Type: application/json' -d "[$batch]" "$BASE/bulk"
+  done
+}
+
+# Prints "requests/sec p99(ms)" from a hey report
+measure() {
+  hey -z "$DURATION" -c "$CONCURRENCY" "$1" | awk '
+    /Requests\/sec/ { rps = $2 }
+    /99% in/ { p99 = $3 * 1000 }
+    END { printf "%.0f %.1f", rps, p99 }'
+}
+
+{
+  echo "| Mode | Endpoint | Requests/sec | p99 (ms) |"
+  echo "|------|----------|--------------|----------|"
+} > "$RESULTS"
+
+for MODE in platform vthreads; do
+  PROFILE=$([ "$MODE" = vthreads ] && echo vthreads || echo default)
+  java -jar "$JAR" --server.port=$PORT --spring.profiles.active="$PROFILE" > "target/$MODE.log" 2>&1 &
+  APP=$!
+  trap 'kill $APP 2>/dev/null' EXIT
+  until curl -sf -o /dev/null "http://localhost:8081/actuator/health"; do sleep 1; done
+  seed
+
+  for ENDPOINT in "?size=50" "?name=dog12&size=50" "?breed=spaniel&currentStatus=IN_SERVICE&size=50" "/1"; do
+    read -r RPS P99 <<< "$(measure "$BASE$ENDPOINT")"
+    echo "| $MODE | \`$ENDPOINT\` | $RPS | $P99 |" >> "$RESULTS"
+  done
+
+  kill $APP
+  wait $APP 2>/dev/null || true
+done
+
+cat "$RESULTS"
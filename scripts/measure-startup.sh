@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Startup comparison of the default executable jar and the fast-startup build.
+# Builds with -Pfast-startup, then for each mode starts the application several
+# times, recording the time from launch to the first successful GET /api/dogs/dogs,
+# and the JVM's own reported startup time, to target/startup.md.
+#
+# Modes:
+#   default:  java -jar on the executable jar
+#   cds-aot:  extracted jar with the CDS archive and AOT-processed context
+#   fast:     as cds-aot, plus the fast-startup profile (lazy beans, background Hibernate boot)
+#
+# Usage: scripts/measure-startup.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=8080
+URL="http://localhost:$PORT/api/dogs/dogs"
+RESULTS=target/startup.md
+
+./mvnw -q -DskipTests -Pfast-startup package
+JAR=$(ls target/dogs-*-exec.jar | head -1)
+DIR=target/fast-startup
+FAST_JAR="$DIR/$(basename "$JAR")"
+
+now_ms() {
+  date +%s%3N
+}
+
+# Prints "first-request(ms) started(s)" for one run of the given command
+measure() {
+  local start app ready
+  start=$(now_ms)
+  "$@" --server.port=$PORT > target/startup-run.log 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null' EXIT
+  until curl -sf -o /dev/null "$URL"; do
+    kill -0 $app 2>/dev/null || { cat target/startup-run.log >&2; exit 1; }
+    sleep 0.02
+  done
+  ready=$(( $(now_ms) - start ))
+  kill $app
+  wait $app 2>/dev/null || true
+  # e.g. "Started DogsApplication in 2.345 seconds (process running for 2.6)"
+  echo "$ready $(grep -o 'Started DogsApplication in [0-9.]*' target/startup-run.log | awk '{ print $4 }')"
+}
+
+run_mode() {
+  local mode=$1; shift
+  local total=0 best=0 ms started
+  for ((i = 1; i <= RUNS; i++)); do
+    read -r ms started <<< "$(measure "$@")"
+    total=$((total + ms))
+    if ((best == 0 || ms < best)); then best=$ms; fi
+  done
+  echo "| $mode | $((total / RUNS)) | $best | $started |" >> "$RESULTS"
+}
+
+{
+  echo "| Mode | First GET, mean (ms) | First GET, best (ms) | Started in, last run (s) |"
+  echo "|------|----------------------|----------------------|--------------------------|"
+} > "$RESULTS"
+
+run_mode default java -jar "$JAR"
+run_mode cds-aot java -XX:SharedArchiveFile="$DIR/dogs.jsa" -Dspring.aot.enabled=true -jar "$FAST_JAR"
+run_mode fast java -XX:SharedArchiveFile="$DIR/dogs.jsa" -Dspring.aot.enabled=true -jar "$FAST_JAR" \
+  --spring.profiles.active=fast-startup
+
+cat "$RESULTS"
@@ -0,0 +1,28 @@
+package com.nathan.dogs.config;
+
+import com.nathan.dogs.limit.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sheds load on @ConcurrencyLimited endpoints, unless dogs.concurrency-limit.enabled is false.
+ * A WebMvcConfigurer, so web slice tests are limited too.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final DogsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        DogsProperties.ConcurrencyLimit concurrencyLimit = properties.getConcurrencyLimit();
+        if (concurrencyLimit.isEnabled()) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimit, meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.nathan.dogs.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application settings, bound from dogs.* properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dogs")
+public class DogsProperties {
+
+    private final Bulk bulk = new Bulk();
+    private final BatchLookup batchLookup = new BatchLookup();
+    private final BulkImport bulkImport = new BulkImport();
+    private final BulkUpdate bulkUpdate = new BulkUpdate();
+    private final SupplierCache supplierCache = new SupplierCache();
+    private final Archive archive = new Archive();
+    private final Changes changes = new Changes();
+    private final ReadReplicas readReplicas = new ReadReplicas();
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private final ListingCoalescing listingCoalescing = new ListingCoalescing();
+
+    @Getter
+    @Setter
+    public static class Bulk {
+        // Maximum number of dogs in a single bulk request
+        private int maxSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class BatchLookup {
+        // Maximum number of ids or badge ids in a single lookup, bounding its IN list
+        private int maxSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class BulkImport {
+        // Rows committed per transaction, unless requested otherwise
+        private int chunkSize = 500;
+        private int maxChunkSize = 10_000;
+        // Parsed chunks buffered ahead of the writer
+        private int queueCapacity = 2;
+        // Rejected rows listed in an import report
+        private int maxReportedRejections = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class BulkUpdate {
+        // Dogs updated per UPDATE statement, bounding its IN list
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class SupplierCache {
+        // Supplier names held in memory, least recently used evicted first
+        private int maxSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        // Deleted dogs moved to the archive per transaction
+        private int batchSize = 500;
+        // How long deleted dogs stay in the dog table before they are archived
+        private Duration retention = Duration.ofDays(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Changes {
+        // Changes read per query when streaming, or when refreshing indexes (see DogIndexFeed)
+        private int batchSize = 100;
+        // How long a change stream stays open before the client must reconnect
+        private Duration streamTimeout = Duration.ofMinutes(30);
+        // Recent changes held in memory for streams; a stream further behind reads the log itself
+        private int bufferSize = 1000;
+        // How long changes stay in the log; clients further behind must re-read the listing
+        private Duration retention = Duration.ofDays(7);
+        // Changes purged per transaction
+        private int purgeBatchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class ReadReplicas {
+        // Route read-only transactions to replicas, see ReadReplicaConfig
+        private boolean enabled = false;
+        // JDBC URLs of replicas, connected to with spring.datasource credentials
+        private List<String> urls = new ArrayList<>();
+        // How long a client's reads go to the primary after its own write, to cover replication lag
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+        // Connections per replica
+        private int maximumPoolSize = 10;
+        // How long to wait for a replica connection before falling back to the primary
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class ListingCoalescing {
+        // Identical concurrent listing queries share one execution, see DogListingCoalescer
+        private boolean enabled = true;
+        // How long a completed listing is reused by identical requests, 0 to share only while running
+        private Duration reuseWindow = Duration.ZERO;
+        // Completed listings held for reuse, least recently used evicted first
+        private int maxReused = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+        // Shed requests over each bulkhead's adaptive limit, see ConcurrencyLimitInterceptor
+        private boolean enabled = true;
+        // Listings, searches, batch lookups, bulk changes, import and export. Capped below the
+        // connection pool size, leaving connections for cheap requests, and throttled with 429
+        private final Settings expensive = new Settings(4, 1, 8, Duration.ofSeconds(1), 429, Duration.ofSeconds(2));
+        // Single dog reads and writes, shed with 503 only when the instance is overloaded
+        private final Settings cheap = new Settings(20, 4, 200, Duration.ofMillis(100), 503, Duration.ofSeconds(1));
+
+        @Getter
+        @Setter
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Settings {
+            // Concurrent requests admitted before any latency is observed, and the bounds of the limit
+            private int initialLimit;
+            private int minLimit;
+            private int maxLimit;
+            // Requests slower than this cut the limit by backoffRatio; faster ones let it grow
+            private Duration latencyThreshold;
+            private int rejectStatus;
+            private Duration retryAfter;
+            private double backoffRatio = 0.9;
+
+            Settings(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                     int rejectStatus, Duration retryAfter) {
+                this(initialLimit, minLimit, maxLimit, latencyThreshold, rejectStatus, retryAfter, 0.9);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.nathan.dogs.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Populates the createdAt and updatedAt columns of BaseEntity.
+ * Kept apart from DogsApplication so web slice tests don't need JPA.
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
@@ -0,0 +1,74 @@
+package com.nathan.dogs.config;
+
+import com.nathan.dogs.datasource.ReadYourWritesFilter;
+import com.nathan.dogs.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing, enabled with dogs.read-replicas.enabled.
+ * Replaces the auto-configured data source with one that sends read-only
+ * transactions to the replicas (see ReplicaRoutingDataSource), so
+ * @Transactional(readOnly = true) service methods read from replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dogs.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Configured by spring.datasource.*, as the auto-configured pool would be
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             DogsProperties properties) {
+        DogsProperties.ReadReplicas settings = properties.getReadReplicas();
+        List<String> urls = settings.getUrls();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setAutoCommit(primaryDataSource.isAutoCommit());
+            replica.setMaximumPoolSize(settings.getMaximumPoolSize());
+            replica.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+            // Start even if the replica is down, reading from the primary until it is back
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    // Takes a connection at the first statement, once the transaction is known to be read-only
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(DogsProperties properties) {
+        return new ReadYourWritesFilter(properties.getReadReplicas().getReadYourWritesWindow(), Clock.systemUTC());
+    }
+}
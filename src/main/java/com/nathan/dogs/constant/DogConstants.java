@@ -1,12 +1,49 @@
 package com.nathan.dogs.constant;
 
+import java.util.Set;
+
 public final class DogConstants {
 
     // prevent instantiation
     private DogConstants() {}
 
+    // Filters
     public static final String NAME = "name";
     public static final String BREED = "breed";
     public static final String SUPPLIER = "supplier";
+    public static final String CURRENT_STATUS = "currentStatus";
+    public static final String GENDER = "gender";
+    public static final String LEAVING_REASON = "leavingReason";
+    public static final String BIRTH_DATE_FROM = "birthDateFrom";
+    public static final String BIRTH_DATE_TO = "birthDateTo";
+    public static final String DATE_ACQUIRED_FROM = "dateAcquiredFrom";
+    public static final String DATE_ACQUIRED_TO = "dateAcquiredTo";
+    public static final String LEAVING_DATE_FROM = "leavingDateFrom";
+    public static final String LEAVING_DATE_TO = "leavingDateTo";
+    public static final String CHARACTERISTIC = "characteristic";
+    public static final String WITHOUT_CHARACTERISTIC = "withoutCharacteristic";
+    public static final Set<String> FILTER_PARAMS = Set.of(NAME, BREED, SUPPLIER, CURRENT_STATUS, GENDER,
+            LEAVING_REASON, BIRTH_DATE_FROM, BIRTH_DATE_TO, DATE_ACQUIRED_FROM, DATE_ACQUIRED_TO,
+            LEAVING_DATE_FROM, LEAVING_DATE_TO, CHARACTERISTIC, WITHOUT_CHARACTERISTIC);
+
+    // Pagination
+    public static final String PAGE = "page";
+    public static final String SIZE = "size";
+    public static final String SORT = "sort";
+    public static final String CURSOR = "cursor";
+    // Sparse fieldsets, see DogField
+    public static final String FIELDS = "fields";
+    // Request parameters that share the query string with filters, but aren't filters
+    public static final Set<String> NON_FILTER_PARAMS = Set.of(PAGE, SIZE, SORT, CURSOR, FIELDS);
+
     public static final String DOG_NOT_FOUND = "Dog not found";
+
+    // Cache of DogOutput by id, configured by spring.cache.*
+    public static final String DOGS_CACHE = "dogs";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_CHANGES_LIMIT = 100;
+    // Rows fetched per round trip, and dogs written between persistence context clears, when exporting
+    public static final int EXPORT_FETCH_SIZE = 500;
 }
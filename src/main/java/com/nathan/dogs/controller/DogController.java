@@ -1,54 +1,323 @@
 package com.nathan.dogs.controller;
 
+import com.nathan.dogs.dto.ArchivedDogOutput;
+import com.nathan.dogs.dto.BulkUpdateDogInput;
+import com.nathan.dogs.dto.BulkUpdateOutput;
 import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogBatch;
+import com.nathan.dogs.dto.DogChanges;
 import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.DogSlice;
+import com.nathan.dogs.dto.DogStatistics;
+import com.nathan.dogs.dto.ImportReport;
 import com.nathan.dogs.dto.UpdateDogInput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.limit.Bulkhead;
+import com.nathan.dogs.limit.ConcurrencyLimited;
+import com.nathan.dogs.limit.DeferredPermit;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.model.ImportStatus;
+import com.nathan.dogs.service.DogArchiveService;
+import com.nathan.dogs.service.DogChangeService;
+import com.nathan.dogs.service.DogChangeStream;
+import com.nathan.dogs.service.DogExportService;
+import com.nathan.dogs.service.DogImportService;
 import com.nathan.dogs.service.DogService;
+import com.nathan.dogs.service.DogStatisticsService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
+import static com.nathan.dogs.constant.DogConstants.CURSOR;
+import static com.nathan.dogs.constant.DogConstants.DEFAULT_CHANGES_LIMIT;
+import static com.nathan.dogs.constant.DogConstants.DEFAULT_PAGE_SIZE;
+import static com.nathan.dogs.constant.DogConstants.FIELDS;
+import static com.nathan.dogs.constant.DogConstants.SORT;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/dogs")
 public class DogController {
 
     private final DogService dogService;
+    private final DogExportService dogExportService;
+    private final DogImportService dogImportService;
+    private final DogStatisticsService dogStatisticsService;
+    private final DogArchiveService dogArchiveService;
+    private final DogChangeService dogChangeService;
+    private final DogChangeStream dogChangeStream;
 
     /**
      * Query all dogs
-     * @param filter: query parameter for searching by:
-     *              - name
-     *              - breed
-     *              - supplier
+     * Takes an expensive permit only to run a query, rather than share an identical one, see DogListingCoalescer.
+     * @param filter: query parameters for filtering, combined with AND:
+     *              - name, breed, supplier (contains, ignoring case)
+     *              - currentStatus, gender, leavingReason (comma-separated values)
+     *              - birthDateFrom/To, dateAcquiredFrom/To, leavingDateFrom/To (ISO dates, inclusive)
+     *              - characteristic (comma-separated, all required)
+     *              Unknown filters are rejected with a 400.
+     * @param fields: optional comma-separated dog fields to return, e.g. name,badgeId.
+     *              Only those columns are queried. All fields are returned if absent.
      * @param pageable: pagination query params.
-     * @return: queried dog data.
+     * @param request: for conditional requests, see listingETag.
+     * @return: queried dog data, or 304 if unchanged since If-None-Match.
      */
+    @ConcurrencyLimited(value = Bulkhead.EXPENSIVE, deferred = true)
     @GetMapping("/dogs")
-    public ResponseEntity<Page<DogOutput>> getAllDogs(
+    public ResponseEntity<Page<?>> getAllDogs(
             // map of provided search parameters
             @RequestParam Map<String, String> filter,
-            Pageable pageable
+            @RequestParam(name = FIELDS, required = false) String fields,
+            Pageable pageable,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(listingETag())) {
+            return null;
+        }
+        if (fields != null) {
+            DeferredPermit.acquire();
+            Versioned<Page<Map<String, Object>>> dogs = dogService.getDogFields(filter, fields, pageable);
+            return tagged(request, listingETag(dogs.getVersion()), dogs.getValue());
+        }
+        Versioned<Page<DogOutput>> dogs = dogService.getDogs(filter, pageable);
+        return tagged(request, listingETag(dogs.getVersion()), dogs.getValue());
+    }
+
+    /**
+     * Query all dogs using cursor pagination. Opted into by
+     * providing the cursor parameter, empty for the first slice.
+     * Suited to walking the full listing, as no count is run
+     * and deep slices are as fast as the first. Always ordered by id,
+     * so sort and fields are rejected rather than ignored.
+     * @param filter: query parameters for filtering, as for getAllDogs.
+     * @param cursor: nextCursor from the previous slice.
+     * @param size: maximum number of dogs to return.
+     * @param request: for conditional requests, see listingETag.
+     * @return: slice of dog data, and the cursor for the next slice, or 304 if unchanged.
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @GetMapping(value = "/dogs", params = CURSOR)
+    public ResponseEntity<DogSlice> getAllDogsByCursor(
+            @RequestParam Map<String, String> filter,
+            @RequestParam(CURSOR) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(name = FIELDS, required = false) String fields,
+            WebRequest request
+    ) {
+        if (fields != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields is not supported with cursor pagination");
+        }
+        if (filter.containsKey(SORT)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort is not supported with cursor pagination");
+        }
+        if (request.checkNotModified(listingETag())) {
+            return null;
+        }
+        Versioned<DogSlice> dogs = dogService.getDogsAfter(filter, cursor, size);
+        return tagged(request, listingETag(dogs.getVersion()), dogs.getValue());
+    }
+
+    /**
+     * Query changes to dogs since a sequence number, in the order they committed.
+     * Lets clients keep a copy in sync by pulling deltas, rather than re-reading the listing.
+     * @param since: lastSeq of the previous response, 0 for every change.
+     * @param limit: maximum number of changes to return.
+     * @return changes, each with the dog's current state (null once deleted), and the lastSeq to continue from,
+     * or 410 if changes after since have been purged, so the listing must be re-read.
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @GetMapping("/dogs/changes")
+    public ResponseEntity<DogChanges> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + DEFAULT_CHANGES_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok(dogChangeService.getChanges(since, limit));
+    }
+
+    /**
+     * Stream changes to dogs as Server-Sent Events, named "change", with the sequence number as the event id.
+     * @param since: last sequence number seen. If neither this nor Last-Event-ID is given, only new changes are sent.
+     * @param lastEventId: sent by clients when reconnecting, to resume after the last event received.
+     * @return event stream, or 410 if changes after since have been purged.
+     */
+    @GetMapping(value = "/dogs/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        long from = lastEventId != null ? lastEventId
+                : since != null ? since
+                : dogService.getListingVersion();
+        return dogChangeStream.subscribe(from);
+    }
+
+    /**
+     * Query counts of non-deleted dogs, in total and by status, gender,
+     * breed, supplier and leaving reason, e.g. for dashboards.
+     * Served from a summary table kept up to date as dogs change, without a scan.
+     * @return dog counts.
+     */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
+    @GetMapping("/dogs/statistics")
+    public ResponseEntity<DogStatistics> getStatistics() {
+        return ResponseEntity.ok(dogStatisticsService.getStatistics());
+    }
+
+    /**
+     * Query deleted dogs that have been archived, for audit.
+     * @param pageable: pagination query params.
+     * @return page of archived dogs.
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @GetMapping("/dogs/archive")
+    public ResponseEntity<Page<ArchivedDogOutput>> getArchivedDogs(Pageable pageable) {
+        return ResponseEntity.ok(dogArchiveService.getArchivedDogs(pageable));
+    }
+
+    /**
+     * Query an archived dog.
+     * @param id: the id the dog had while live.
+     * @return archived dog, or 404 if not archived.
+     */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
+    @GetMapping("/dogs/archive/{id}")
+    public ResponseEntity<ArchivedDogOutput> getArchivedDog(@PathVariable Long id) {
+        return ResponseEntity.ok(dogArchiveService.getArchivedDog(id));
+    }
+
+    /**
+     * Export every non-deleted dog, streamed straight to the response
+     * so the full register can be downloaded in one request.
+     * @param format: ndjson (default) or csv.
+     * @param response: written to directly.
+     */
+    @ConcurrencyLimited(value = Bulkhead.EXPENSIVE, sampleLatency = false)
+    @GetMapping("/dogs/export")
+    public void exportDogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        DogFileFormat fileFormat = DogFileFormat.from(format);
+        response.setContentType(fileFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=dogs." + fileFormat.getExtension());
+        dogExportService.export(fileFormat, response.getOutputStream());
+    }
+
+    /**
+     * Import dogs from a CSV or NDJSON request body, e.g. legacy kennel records.
+     * Rows are committed in chunks; invalid rows are rejected and reported,
+     * without stopping the import.
+     * @param format: ndjson (default) or csv, with a header row as written by the export.
+     * @param chunkSize: rows per committed chunk, optional.
+     * @param input: request body.
+     * @return import report, 200 if completed, or 500 if it failed and can be resumed.
+     */
+    @ConcurrencyLimited(value = Bulkhead.EXPENSIVE, sampleLatency = false)
+    @PostMapping("/dogs/import")
+    public ResponseEntity<ImportReport> importDogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Integer chunkSize,
+            InputStream input
     ) {
-        Page<DogOutput> dogs = dogService.getDogs(filter, pageable);
-        return ResponseEntity.ok(dogs);
+        ImportReport report = dogImportService.startImport(DogFileFormat.from(format), chunkSize, input);
+        return importResponse(report);
+    }
+
+    /**
+     * Resume a failed import from its last committed chunk.
+     * @param jobId: id from the import report.
+     * @param input: request body, the same file as the original import.
+     * @return import report, 200 if completed, or 500 if it failed again.
+     */
+    @ConcurrencyLimited(value = Bulkhead.EXPENSIVE, sampleLatency = false)
+    @PostMapping("/dogs/import/{jobId}/resume")
+    public ResponseEntity<ImportReport> resumeImport(@PathVariable Long jobId, InputStream input) {
+        ImportReport report = dogImportService.resumeImport(jobId, input);
+        return importResponse(report);
+    }
+
+    /**
+     * Query the progress of an import.
+     * @param jobId: id from the import report.
+     * @return import report.
+     */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
+    @GetMapping("/dogs/import/{jobId}")
+    public ResponseEntity<ImportReport> getImport(@PathVariable Long jobId) {
+        return ResponseEntity.ok(dogImportService.getImport(jobId));
+    }
+
+    /**
+     * Query many dogs by entity id with a single query, instead of one request per dog.
+     * @param ids: comma-separated ids, up to dogs.batch-lookup.max-size.
+     * @return dogs keyed by id, and the ids with no dog (or a deleted one).
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @GetMapping(value = "/dogs/batch", params = "ids")
+    public ResponseEntity<DogBatch<Long>> getDogsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(dogService.getDogsByIds(ids));
+    }
+
+    /**
+     * Query many dogs by badge id with a single query.
+     * @param badgeIds: comma-separated badge ids, up to dogs.batch-lookup.max-size.
+     * @return dogs keyed by badge id, and the badge ids with no dog (or a deleted one).
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @GetMapping(value = "/dogs/batch", params = "badgeIds")
+    public ResponseEntity<DogBatch<String>> getDogsByBadgeIds(@RequestParam List<String> badgeIds) {
+        return ResponseEntity.ok(dogService.getDogsByBadgeIds(badgeIds));
     }
 
     /**
      * Query dogs by entity id.
+     * The ETag is the dog's version, so a matching If-None-Match is
+     * answered with 304 from a version lookup alone. Weak, see weakETag.
+     * A cached dog older than that version is reloaded, and the body is
+     * tagged with the version it was read at.
      * @param id: id of the dog entity.
-     * @return the queried dog.
+     * @param fields: optional comma-separated dog fields to return, as for getAllDogs.
+     * @param request: for conditional requests.
+     * @return the queried dog, or 304 if unchanged.
      */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
     @GetMapping("/dogs/{id}")
-    public ResponseEntity<DogOutput> getDogById(@PathVariable Long id) {
-        DogOutput dog = dogService.getDogById(id);
-        return ResponseEntity.ok(dog);
+    public ResponseEntity<?> getDogById(
+            @PathVariable Long id,
+            @RequestParam(name = FIELDS, required = false) String fields,
+            WebRequest request
+    ) {
+        long version = dogService.getDogVersion(id);
+        if (request.checkNotModified(dogETag(id, version))) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(dogService.getDogFieldsById(id, fields));
+        }
+        Versioned<DogOutput> dog = dogService.getDogById(id);
+        if (dog.getVersion() < version) {
+            // Cached before a change, e.g. put back by a load that read it before the change committed
+            dog = dogService.reloadDogById(id);
+        }
+        // Tagged with the version it was read at, so the body and its ETag always agree
+        return tagged(request, dogETag(id, dog.getVersion()), dog.getValue());
     }
 
     /**
@@ -56,12 +325,27 @@ public class DogController {
      * @param dog: dog data.
      * @return the created dog object, on success.
      */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
     @PostMapping("/dogs")
     public ResponseEntity<DogOutput> createDog(@Valid @RequestBody CreateDogInput dog) {
         DogOutput createdDog = dogService.createDog(dog);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdDog);
     }
 
+    /**
+     * Create many dogs at once, e.g. for a new intake.
+     * All dogs are validated before any are created; if any
+     * are invalid, a 400 lists the errors of each, keyed by index.
+     * @param dogs: list of dog data.
+     * @return the created dog objects, in the order provided.
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @PostMapping("/dogs/bulk")
+    public ResponseEntity<List<DogOutput>> createDogs(@RequestBody List<CreateDogInput> dogs) {
+        List<DogOutput> createdDogs = dogService.createDogs(dogs);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdDogs);
+    }
+
     /**
      * Updates a dog entity.
      * Note: A dog is associated to a single supplier,
@@ -71,22 +355,81 @@ public class DogController {
      * @param dog: provided dog fields for update .
      * @return the updated dog object, on success.
      */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
     @PutMapping("/dogs/{id}")
     public ResponseEntity<DogOutput> updateDog(@PathVariable Long id, @RequestBody UpdateDogInput dog) {
         DogOutput updatedDog = dogService.updateDog(id, dog);
         return ResponseEntity.ok(updatedDog);
     }
 
+    /**
+     * Update the status of every dog matching a filter at once,
+     * e.g. retiring a cohort, or marking a supplier's dogs as left.
+     * Deleted dogs are not updated.
+     * @param filter: query parameters for filtering, as for getAllDogs. At least one is required.
+     * @param patch: currentStatus, leavingDate and/or leavingReason to set.
+     * @return number of dogs updated.
+     */
+    @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+    @PatchMapping("/dogs")
+    public ResponseEntity<BulkUpdateOutput> updateDogs(
+            @RequestParam Map<String, String> filter,
+            @RequestBody BulkUpdateDogInput patch
+    ) {
+        long updated = dogService.updateDogs(filter, patch);
+        return ResponseEntity.ok(BulkUpdateOutput.builder().updated(updated).build());
+    }
+
     /**
      * Mark a dog entity for deletion. The entity remains persisted,
      * but a deleted flag is set.
      * @param id: id of the dog entity.
      * @return 204 response if successful, or 404 if not found.
      */
+    @ConcurrencyLimited(Bulkhead.CHEAP)
     @DeleteMapping("/dogs/{id}")
     public ResponseEntity<Void> deleteDog(@PathVariable Long id) {
         dogService.deleteDog(id);
         return ResponseEntity.noContent().build();
     }
 
+    // Any committed change to dogs changes the version, so a listing can only be unchanged if it
+    // hasn't. Read before the listing, so a change committed in between changes the next ETag.
+    private String listingETag() {
+        return listingETag(dogService.getListingVersion());
+    }
+
+    private static String listingETag(long version) {
+        return weakETag("dogs-" + version);
+    }
+
+    // A body's ETag is that of the version it was read at, which may not be the one If-None-Match
+    // was checked against, e.g. for listings, when read from another replica. checkNotModified has
+    // already set the ETag it checked, so it is replaced, rather than the response carrying both.
+    private static <T> ResponseEntity<T> tagged(WebRequest request, String eTag, T body) {
+        HttpServletResponse response = request instanceof NativeWebRequest nativeRequest
+                ? nativeRequest.getNativeResponse(HttpServletResponse.class)
+                : null;
+        if (response == null) {
+            return ResponseEntity.ok().eTag(eTag).body(body);
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        return ResponseEntity.ok(body);
+    }
+
+    private static String dogETag(Long id, long version) {
+        return weakETag("dog-" + id + "-" + version);
+    }
+
+    // Weak, as JSON, CBOR and Smile (and gzipped) responses are different bytes for the same
+    // version: equivalent for revalidation, but not byte-for-byte interchangeable
+    private static String weakETag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static ResponseEntity<ImportReport> importResponse(ImportReport report) {
+        HttpStatus status = report.getStatus() == ImportStatus.COMPLETED ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(report);
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.nathan.dogs.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether the request being served on the current thread must read from the primary,
+ * because its client wrote recently and replicas may not have the write yet.
+ * Set and cleared by ReadYourWritesFilter, and read by ReplicaRoutingDataSource
+ * and DogListingCoalescer. Reads whose result is shared with every client,
+ * such as dogs cache loads, are also pinned, for their duration, by onPrimary.
+ * Work on other threads, such as background loads, isn't pinned.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    // prevent instantiation
+    private ReadYourWrites() {}
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Run a read against the primary, whether or not the request is pinned. Only routes
+     * the transaction's connection if taken by the read, i.e. at its first statement.
+     * @param read: queries to run.
+     * @return the read's result.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPinned()) {
+            return read.get();
+        }
+        pin();
+        try {
+            return read.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nathan.dogs.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to replicas, in turn, and everything else to the primary.
+ * Reads also go to the primary while pinned by ReadYourWrites, or when no replica is healthy.
+ * A replica is marked unhealthy when a connection to it fails, and healthy again once a
+ * scheduled check can connect to it.
+ * Must be wrapped in a LazyConnectionDataSourceProxy, so connections are taken at the first
+ * statement, once the transaction's read-only flag is set, rather than when it begins.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary: data source for writes, and reads when no replica can be used.
+     * @param replicas: read-only data sources, by name. Closed with this data source.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinned()) {
+            return PRIMARY;
+        }
+        List<String> healthy = replicaNames.stream()
+                .filter(name -> !unhealthy.contains(name))
+                .toList();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    // Fall back to the primary, rather than fail the read, when a replica can't be reached
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object name = determineCurrentLookupKey();
+        DataSource replica = replicas.get(name);
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markUnhealthy((String) name, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Check every replica can be connected to, so unhealthy replicas are skipped and recovered ones used again.
+     */
+    @Scheduled(fixedDelayString = "${dogs.read-replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        replicas.forEach((name, replica) -> {
+            try (Connection connection = replica.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    markUnhealthy(name, null);
+                } else if (unhealthy.remove(name)) {
+                    log.info("Replica {} is healthy, routing reads to it again", name);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(name, e);
+            }
+        });
+    }
+
+    boolean isHealthy(String name) {
+        return !unhealthy.contains(name);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void markUnhealthy(String name, SQLException cause) {
+        if (unhealthy.add(name)) {
+            log.warn("Replica {} is unhealthy, routing its reads to the primary", name, cause);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.nathan.dogs.dto;
+
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.LeavingReason;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Full record of an archived dog, for audit.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDogOutput {
+
+    private Long id;
+    private String name;
+    private String breed;
+    private String supplier;
+    private CurrentStatus currentStatus;
+    private String badgeId;
+    private Gender gender;
+    private LocalDate birthDate;
+    private LocalDate dateAcquired;
+    private LocalDate leavingDate;
+    private LeavingReason leavingReason;
+    private Set<String> kennellingCharacteristics;
+    private LocalDateTime createdAt;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
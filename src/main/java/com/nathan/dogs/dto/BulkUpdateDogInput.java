@@ -0,0 +1,22 @@
+package com.nathan.dogs.dto;
+
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.LeavingReason;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Status fields to set on every dog matching a filter. Null fields are left unchanged.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateDogInput {
+
+    private CurrentStatus currentStatus;
+    private LocalDate leavingDate;
+    private LeavingReason leavingReason;
+}
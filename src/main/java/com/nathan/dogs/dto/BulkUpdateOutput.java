@@ -0,0 +1,14 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateOutput {
+
+    // Dogs matching the filter that were updated
+    private long updated;
+}
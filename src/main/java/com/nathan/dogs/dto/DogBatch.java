@@ -0,0 +1,22 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dogs looked up in a batch, keyed by the identifier requested (id or badgeId),
+ * in request order. Identifiers with no non-deleted dog are listed as missing.
+ * @param <K> type of identifier.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogBatch<K> {
+
+    private Map<K, DogOutput> dogs;
+    private List<K> missing;
+}
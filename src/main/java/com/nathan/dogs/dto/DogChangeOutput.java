@@ -0,0 +1,24 @@
+package com.nathan.dogs.dto;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a dog, from the change log.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogChangeOutput {
+
+    private long seq;
+    private Long dogId;
+    private DogChangedEvent.Type type;
+    private LocalDateTime changedAt;
+    // Current state of the dog, null once deleted
+    private DogOutput dog;
+}
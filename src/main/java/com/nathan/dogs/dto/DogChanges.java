@@ -0,0 +1,21 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A batch of changes from the change log, in sequence order.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogChanges {
+
+    private List<DogChangeOutput> changes;
+    // Sequence to request changes since next time; unchanged if there were none
+    private long lastSeq;
+    private boolean hasMore;
+}
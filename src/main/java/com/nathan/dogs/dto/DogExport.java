@@ -0,0 +1,34 @@
+package com.nathan.dogs.dto;
+
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.LeavingReason;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Full record of a dog, as written by the export.
+ * Fields match CreateDogInput, plus the id, so exports can be re-imported.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogExport {
+
+    private Long id;
+    private String name;
+    private String breed;
+    private String supplier;
+    private CurrentStatus currentStatus;
+    private String badgeId;
+    private Gender gender;
+    private LocalDate birthDate;
+    private LocalDate dateAcquired;
+    private LocalDate leavingDate;
+    private LeavingReason leavingReason;
+    private Set<String> kennellingCharacteristics;
+}
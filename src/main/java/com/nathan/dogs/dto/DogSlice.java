@@ -0,0 +1,22 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A window of dogs returned by cursor (keyset) pagination.
+ * No total count is calculated; follow nextCursor until hasNext is false.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogSlice {
+
+    private List<DogOutput> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
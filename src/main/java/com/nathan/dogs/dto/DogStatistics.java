@@ -0,0 +1,24 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Counts of non-deleted dogs, in total and grouped by each field.
+ * Dogs without a value for a field are counted under NONE.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogStatistics {
+
+    private long total;
+    private Map<String, Long> currentStatus;
+    private Map<String, Long> gender;
+    private Map<String, Long> breed;
+    private Map<String, Long> supplier;
+    private Map<String, Long> leavingReason;
+}
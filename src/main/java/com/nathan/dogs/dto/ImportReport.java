@@ -0,0 +1,35 @@
+package com.nathan.dogs.dto;
+
+import com.nathan.dogs.model.ImportStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private Long jobId;
+    private ImportStatus status;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsRejected;
+    // Throughput of the latest run, including resumed runs
+    private double rowsPerSecond;
+    private String failure;
+    // First rejected rows, ordered by row number
+    private List<Rejection> rejections;
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        private long row;
+        private String errors;
+    }
+}
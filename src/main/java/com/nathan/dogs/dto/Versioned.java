@@ -0,0 +1,18 @@
+package com.nathan.dogs.dto;
+
+import lombok.*;
+
+/**
+ * A dog, or listing of dogs, with the version it was read at, held together
+ * (e.g. in the dogs cache) so a response's ETag always describes the body it is sent with.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Versioned<T> {
+
+    private T value;
+    private long version;
+}
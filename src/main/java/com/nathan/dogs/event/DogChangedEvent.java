@@ -0,0 +1,38 @@
+package com.nathan.dogs.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by DogService within the transaction that creates,
+ * updates or deletes a dog, so derived data can be kept in step.
+ */
+@Getter
+@AllArgsConstructor
+public class DogChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long dogId;
+    // null when created
+    private final DogSnapshot before;
+    // null when deleted
+    private final DogSnapshot after;
+
+    public static DogChangedEvent created(DogSnapshot after) {
+        return new DogChangedEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static DogChangedEvent updated(DogSnapshot before, DogSnapshot after) {
+        return new DogChangedEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    public static DogChangedEvent deleted(DogSnapshot before) {
+        return new DogChangedEvent(Type.DELETED, before.getId(), before, null);
+    }
+}
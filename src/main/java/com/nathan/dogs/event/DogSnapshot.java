@@ -0,0 +1,65 @@
+package com.nathan.dogs.event;
+
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.LeavingReason;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the Dog fields that derived data (indexes, caches)
+ * is built from, taken before and after a change.
+ */
+@Getter
+@AllArgsConstructor
+public class DogSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String breed;
+    private final String supplier;
+    private final CurrentStatus currentStatus;
+    private final Gender gender;
+    private final LeavingReason leavingReason;
+    private final Set<String> kennellingCharacteristics;
+    // Deleted dogs are excluded from derived data
+    private final boolean deleted;
+
+    public static DogSnapshot of(Dog dog) {
+        return new DogSnapshot(
+                dog.getId(),
+                dog.getName(),
+                dog.getBreed(),
+                dog.getSupplier() == null ? null : dog.getSupplier().getName(),
+                dog.getCurrentStatus(),
+                dog.getGender(),
+                dog.getLeavingReason(),
+                dog.getKennellingCharacteristics() == null ? Set.of() : dog.getKennellingCharacteristics().stream()
+                        .map(Characteristic::getName)
+                        .collect(Collectors.toUnmodifiableSet()),
+                dog.isDeleted()
+        );
+    }
+
+    /**
+     * @return a copy with the status and leaving reason replaced, where not null, as by a bulk update.
+     */
+    public DogSnapshot withStatus(CurrentStatus currentStatus, LeavingReason leavingReason) {
+        return new DogSnapshot(
+                id,
+                name,
+                breed,
+                supplier,
+                currentStatus == null ? this.currentStatus : currentStatus,
+                gender,
+                leavingReason == null ? this.leavingReason : leavingReason,
+                kennellingCharacteristics,
+                deleted
+        );
+    }
+}
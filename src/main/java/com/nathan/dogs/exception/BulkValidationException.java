@@ -0,0 +1,20 @@
+package com.nathan.dogs.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Thrown when one or more items of a bulk request are invalid.
+ * Errors are keyed by item index and field, e.g. "[3].name".
+ */
+@Getter
+public class BulkValidationException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public BulkValidationException(Map<String, String> errors) {
+        super("Invalid bulk request");
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,28 @@
+package com.nathan.dogs.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when a request is shed over a concurrency limit (see ConcurrencyLimitInterceptor).
+ * Answered with the bulkhead's reject status and a Retry-After header, in seconds.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends ResponseStatusException {
+
+    private final long retryAfter;
+
+    public ConcurrencyLimitExceededException(HttpStatusCode status, long retryAfter) {
+        super(status, "Too many concurrent requests, retry after " + retryAfter + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return headers;
+    }
+}
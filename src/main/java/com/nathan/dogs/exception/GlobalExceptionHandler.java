@@ -1,5 +1,6 @@
 package com.nathan.dogs.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,4 +29,20 @@ public class GlobalExceptionHandler {
         response.put("errors", fieldErrors);
         return response;
     }
+
+    @ExceptionHandler(BulkValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleBulkValidationExceptions(BulkValidationException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("errors", ex.getErrors());
+        return response;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Dog was changed by another request, retry with the latest version");
+        return response;
+    }
 }
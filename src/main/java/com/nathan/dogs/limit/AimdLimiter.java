@@ -0,0 +1,85 @@
+package com.nathan.dogs.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit adapted to observed latency, by additive increase, multiplicative decrease (AIMD):
+ * - a request slower than the latency threshold is taken as a sign of congestion, and cuts the limit by backoffRatio
+ * - otherwise, while at least half the limit is in use, it grows by one per limit's worth of requests
+ * Requests beyond the limit are rejected at once rather than queued, so they fail fast
+ * instead of waiting on connections held by the requests already admitted.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private volatile double limit;
+
+    /**
+     * @param initialLimit: concurrent requests admitted before any latency is observed.
+     * @param minLimit: floor, so some requests are always served.
+     * @param maxLimit: ceiling, e.g. below the connection pool size for expensive requests.
+     * @param latencyThresholdNanos: latency above which a request counts as congestion.
+     * @param backoffRatio: multiplier applied to the limit on congestion, between 0 and 1.
+     */
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * @return true if admitted, in which case release must be called once the request completes.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a permit, adjusting the limit by the request's latency.
+     * @param latencyNanos: time the request took.
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Release a permit without adjusting the limit
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,12 @@
+package com.nathan.dogs.limit;
+
+/**
+ * Groups of endpoints whose concurrency is limited separately, so a stampede
+ * of expensive requests can't take the capacity cheap ones need.
+ */
+public enum Bulkhead {
+    // Listings and searches, batch lookups, bulk changes, import and export
+    EXPENSIVE,
+    // Single dog reads and writes, statistics
+    CHEAP
+}
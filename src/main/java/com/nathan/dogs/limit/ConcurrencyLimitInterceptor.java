@@ -0,0 +1,120 @@
+package com.nathan.dogs.limit;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admits requests to @ConcurrencyLimited controller methods up to their bulkhead's
+ * AimdLimiter limit, and sheds the rest at once with a ConcurrencyLimitExceededException,
+ * carrying the bulkhead's reject status and Retry-After, before any database work is done.
+ * Deferred methods (see ConcurrencyLimited.deferred) are admitted, and take their permit later, if at all.
+ * Records dogs.concurrency.limit, dogs.concurrency.in_flight and dogs.concurrency.rejected by bulkhead.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final Map<Bulkhead, AimdLimiter> limiters = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, DogsProperties.ConcurrencyLimit.Settings> settings = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> rejected = new EnumMap<>(Bulkhead.class);
+
+    public ConcurrencyLimitInterceptor(DogsProperties.ConcurrencyLimit properties, MeterRegistry meterRegistry) {
+        settings.put(Bulkhead.EXPENSIVE, properties.getExpensive());
+        settings.put(Bulkhead.CHEAP, properties.getCheap());
+        settings.forEach((bulkhead, bulkheadSettings) -> {
+            AimdLimiter limiter = new AimdLimiter(
+                    bulkheadSettings.getInitialLimit(),
+                    bulkheadSettings.getMinLimit(),
+                    bulkheadSettings.getMaxLimit(),
+                    bulkheadSettings.getLatencyThreshold().toNanos(),
+                    bulkheadSettings.getBackoffRatio());
+            limiters.put(bulkhead, limiter);
+            String tag = bulkhead.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("dogs.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .description("Concurrent requests admitted")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("dogs.concurrency.in_flight", limiter, AimdLimiter::getInFlight)
+                    .description("Requests being served")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            rejected.put(bulkhead, Counter.builder("dogs.concurrency.rejected")
+                    .description("Requests shed over the concurrency limit")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ConcurrencyLimited limited = handler instanceof HandlerMethod method
+                ? method.getMethodAnnotation(ConcurrencyLimited.class)
+                : null;
+        if (limited == null) {
+            return true;
+        }
+        if (limited.deferred()) {
+            DeferredPermit.defer(() -> acquire(request, limited));
+        } else {
+            acquire(request, limited);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        DeferredPermit.clear();
+        if (request.getAttribute(PERMIT) instanceof Permit permit) {
+            request.removeAttribute(PERMIT);
+            if (permit.sampleLatency()) {
+                permit.limiter().release(System.nanoTime() - permit.start());
+            } else {
+                permit.limiter().release();
+            }
+        }
+    }
+
+    // Completed on another thread, and dispatched again to finish, so nothing is left on this one
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        DeferredPermit.clear();
+    }
+
+    private void acquire(HttpServletRequest request, ConcurrencyLimited limited) {
+        // Already admitted, if dispatched again, e.g. after asynchronous processing
+        if (request.getAttribute(PERMIT) != null) {
+            return;
+        }
+        AimdLimiter limiter = limiters.get(limited.value());
+        if (!limiter.tryAcquire()) {
+            rejected.get(limited.value()).increment();
+            throw rejection(settings.get(limited.value()));
+        }
+        request.setAttribute(PERMIT, new Permit(limiter, limited.sampleLatency(), System.nanoTime()));
+    }
+
+    AimdLimiter getLimiter(Bulkhead bulkhead) {
+        return limiters.get(bulkhead);
+    }
+
+    private static ConcurrencyLimitExceededException rejection(DogsProperties.ConcurrencyLimit.Settings settings) {
+        return new ConcurrencyLimitExceededException(HttpStatusCode.valueOf(settings.getRejectStatus()),
+                Math.max(1, settings.getRetryAfter().toSeconds()));
+    }
+
+    private record Permit(AimdLimiter limiter, boolean sampleLatency, long start) {}
+}
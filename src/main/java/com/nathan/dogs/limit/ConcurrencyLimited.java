@@ -0,0 +1,30 @@
+package com.nathan.dogs.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits concurrent requests to a controller method by its bulkhead's adaptive limit,
+ * see ConcurrencyLimitInterceptor. Methods without it aren't limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    Bulkhead value();
+
+    /**
+     * Whether the method's latency adjusts the limit. False for transfers, such as export,
+     * whose duration depends on the data size rather than load; they still hold a permit.
+     */
+    boolean sampleLatency() default true;
+
+    /**
+     * Whether the method is admitted without a permit, taking it with DeferredPermit.acquire()
+     * only if it needs one. For methods that may share another request's work, such as
+     * coalesced listings, so an identical stampede isn't shed before it can share.
+     */
+    boolean deferred() default false;
+}
@@ -0,0 +1,36 @@
+package com.nathan.dogs.limit;
+
+/**
+ * The permit of the request being served on the current thread, when its method is
+ * @ConcurrencyLimited(deferred = true): admitted without one, and taking it only once
+ * it turns out to need one, e.g. a listing running its own query rather than sharing
+ * an identical request's (see DogListingCoalescer).
+ * Set and cleared by ConcurrencyLimitInterceptor.
+ * Work on other threads, and requests that aren't deferred, have nothing to take.
+ */
+public final class DeferredPermit {
+
+    private static final ThreadLocal<Runnable> ACQUIRE = new ThreadLocal<>();
+
+    // prevent instantiation
+    private DeferredPermit() {}
+
+    static void defer(Runnable acquire) {
+        ACQUIRE.set(acquire);
+    }
+
+    static void clear() {
+        ACQUIRE.remove();
+    }
+
+    /**
+     * Take the current request's deferred permit, if it has one and hasn't taken it yet.
+     * @throws com.nathan.dogs.exception.ConcurrencyLimitExceededException if its bulkhead is at its limit.
+     */
+    public static void acquire() {
+        Runnable acquire = ACQUIRE.get();
+        if (acquire != null) {
+            acquire.run();
+        }
+    }
+}
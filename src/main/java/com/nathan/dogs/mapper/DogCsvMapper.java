@@ -0,0 +1,171 @@
+package com.nathan.dogs.mapper;
+
+import com.nathan.dogs.dto.DogExport;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes dogs as RFC 4180 CSV. Columns are named after the
+ * DogExport fields; kennelling characteristics are joined with '|'.
+ */
+@Component
+public class DogCsvMapper {
+
+    public static final List<String> COLUMNS = List.of(
+            "id", "name", "breed", "supplier", "currentStatus", "badgeId", "gender",
+            "birthDate", "dateAcquired", "leavingDate", "leavingReason", "kennellingCharacteristics"
+    );
+    public static final String CHARACTERISTIC_SEPARATOR = "|";
+
+    /**
+     * Read CSV records lazily, keyed by the column names in the header row.
+     * Empty values are omitted, and characteristics are split into a list,
+     * so each record can be converted to a CreateDogInput.
+     * @param reader: CSV source, starting with a header row.
+     * @return iterator of records; throws UncheckedIOException if reading fails.
+     */
+    public Iterator<Map<String, Object>> read(Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        List<String> header = readRecord(in);
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            private List<String> next = readNonBlankRecord(in);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (next == null) throw new NoSuchElementException();
+                Map<String, Object> record = toRecord(header, next);
+                try {
+                    next = readNonBlankRecord(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return record;
+            }
+        };
+    }
+
+    public void writeHeader(Writer writer) throws IOException {
+        writeRow(writer, COLUMNS);
+    }
+
+    public void write(Writer writer, DogExport dog) throws IOException {
+        String characteristics = dog.getKennellingCharacteristics() == null ? null
+                : dog.getKennellingCharacteristics().stream()
+                        .sorted()
+                        .collect(Collectors.joining(CHARACTERISTIC_SEPARATOR));
+        writeRow(writer, List.of(
+                text(dog.getId()),
+                text(dog.getName()),
+                text(dog.getBreed()),
+                text(dog.getSupplier()),
+                text(dog.getCurrentStatus()),
+                text(dog.getBadgeId()),
+                text(dog.getGender()),
+                text(dog.getBirthDate()),
+                text(dog.getDateAcquired()),
+                text(dog.getLeavingDate()),
+                text(dog.getLeavingReason()),
+                text(characteristics)
+        ));
+    }
+
+    private void writeRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static Map<String, Object> toRecord(List<String> header, List<String> values) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(header.size(), values.size()); i++) {
+            String column = header.get(i).trim();
+            String value = values.get(i);
+            if (value.isEmpty()) continue;
+            if (column.equals("kennellingCharacteristics")) {
+                record.put(column, Arrays.asList(value.split(Pattern.quote(CHARACTERISTIC_SEPARATOR))));
+            } else {
+                record.put(column, value);
+            }
+        }
+        return record;
+    }
+
+    private static List<String> readNonBlankRecord(BufferedReader in) throws IOException {
+        List<String> record = readRecord(in);
+        while (record != null && record.size() == 1 && record.get(0).isEmpty()) {
+            record = readRecord(in);
+        }
+        return record;
+    }
+
+    // Read one record, which may span lines within quoted values. Returns null at end of input.
+    static List<String> readRecord(Reader in) throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // Unterminated quote; keep what was read
+                    values.add(value.toString());
+                    return values;
+                }
+                if (c == '"') {
+                    int next = in.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                value.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                values.add(value.toString());
+                return values;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    private static String text(Object value) {
+        return Objects.toString(value, "");
+    }
+
+    // Quote values containing delimiters, doubling any quotes within
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,8 +1,12 @@
 package com.nathan.dogs.mapper;
 
+import com.nathan.dogs.dto.ArchivedDogOutput;
 import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogExport;
 import com.nathan.dogs.dto.DogOutput;
 import com.nathan.dogs.dto.UpdateDogInput;
+import com.nathan.dogs.model.ArchivedDog;
+import com.nathan.dogs.model.Characteristic;
 import com.nathan.dogs.model.Dog;
 import com.nathan.dogs.model.Supplier;
 import org.mapstruct.*;
@@ -17,6 +21,14 @@ public interface DogMapper {
     // Map Dog entity to DogOutput
     DogOutput toOutputDto(Dog dog);
 
+    // Map Dog entity to DogExport, flattening the supplier to its name
+    @Mapping(target = "supplier", source = "supplier.name")
+    DogExport toExportDto(Dog dog);
+
+    // Map ArchivedDog entity to ArchivedDogOutput, flattening the supplier to its name
+    @Mapping(target = "supplier", source = "supplier.name")
+    ArchivedDogOutput toArchivedOutputDto(ArchivedDog dog);
+
     // Map provided UpdateDogInput fields to existing Dog entity
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(UpdateDogInput dto, @MappingTarget Dog entity);
@@ -29,4 +41,13 @@ public interface DogMapper {
         return supplier;
     }
 
+    // Characteristics are mapped by name, and resolved against the dictionary by DogService
+    default Characteristic stringToCharacteristic(String name) {
+        return name == null ? null : new Characteristic(name);
+    }
+
+    default String characteristicToString(Characteristic characteristic) {
+        return characteristic == null ? null : characteristic.getName();
+    }
+
 }
@@ -0,0 +1,97 @@
+package com.nathan.dogs.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static com.nathan.dogs.constant.DogConstants.CURSOR;
+import static com.nathan.dogs.constant.DogConstants.FIELDS;
+import static com.nathan.dogs.constant.DogConstants.FILTER_PARAMS;
+
+/**
+ * Records per request metrics, alongside Spring's http.server.requests latency:
+ * - dogs.request.sql.statements / dogs.request.sql.time: SQL run by the request, by endpoint
+ * - dogs.listing: latency of dog listings, by the filter used (see filterTypes), pagination mode and sparse fieldsets
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String LISTING = "/api/dogs/dogs";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats sql = RequestSqlStats.start();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestSqlStats.clear();
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+            DistributionSummary.builder("dogs.request.sql.statements")
+                    .description("SQL statements and batches executed per request")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(sql.getStatements());
+            Timer.builder("dogs.request.sql.time")
+                    .description("Time spent executing SQL per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(sql.getNanos(), TimeUnit.NANOSECONDS);
+
+            if (LISTING.equals(uri) && "GET".equals(request.getMethod())) {
+                Timer.builder("dogs.listing")
+                        .description("Dog listing latency by filter type")
+                        .tag("filters", filterTypes(request.getParameterMap()))
+                        .tag("pagination", request.getParameter(CURSOR) == null ? "page" : "cursor")
+                        .tag("fields", request.getParameter(FIELDS) == null ? "all" : "sparse")
+                        .tag("status", String.valueOf(response.getStatus()))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            log.debug("{} {} ran {} SQL statements in {} ms", request.getMethod(), uri,
+                    sql.getStatements(), TimeUnit.NANOSECONDS.toMillis(sql.getNanos()));
+        }
+    }
+
+    // The one known filter used, ranges merged (e.g. birthDateFrom -> birthDate), "none" or "multiple".
+    // Combinations aren't tagged individually, as each would add a histogram's worth of series.
+    static String filterTypes(Map<String, String[]> params) {
+        TreeSet<String> types = new TreeSet<>();
+        for (String param : params.keySet()) {
+            if (FILTER_PARAMS.contains(param)) {
+                types.add(param.replaceFirst("(From|To)$", ""));
+            }
+        }
+        return switch (types.size()) {
+            case 0 -> "none";
+            case 1 -> types.first();
+            default -> "multiple";
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.nathan.dogs.metrics;
+
+import lombok.Getter;
+
+/**
+ * SQL statements executed by Hibernate for the request being served on the
+ * current thread. Started and cleared by RequestMetricsFilter, and recorded
+ * by SqlStatsSessionListener. Statements run on other threads, such as
+ * background loads, aren't attributed to the request.
+ */
+@Getter
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private RequestSqlStats() {}
+
+    static RequestSqlStats start() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Record a statement (or batch) against the current request, if any.
+     * @param nanos: execution time.
+     */
+    static void record(long nanos) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.nanos += nanos;
+        }
+    }
+}
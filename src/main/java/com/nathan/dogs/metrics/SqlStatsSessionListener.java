@@ -0,0 +1,33 @@
+package com.nathan.dogs.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times each JDBC statement and batch executed by a Hibernate session,
+ * recording them in the current request's RequestSqlStats.
+ * Created by Hibernate for every session (hibernate.session.events.auto).
+ */
+public class SqlStatsSessionListener implements SessionEventListener {
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStats.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestSqlStats.record(System.nanoTime() - start);
+    }
+}
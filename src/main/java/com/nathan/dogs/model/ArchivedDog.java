@@ -0,0 +1,87 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A deleted dog, moved out of the dog table by DogArchiveService so live
+ * queries only scan active rows. Kept for audit, and never changed once written.
+ * Rows are copied from the dog table by ArchivedDogRepository, so columns match Dog's.
+ */
+@Entity
+@Immutable
+@Table(name = "archived_dog", indexes = {
+        @Index(name = "idx_archived_dog_badge_id", columnList = "badge_id"),
+        @Index(name = "idx_archived_dog_archived_at", columnList = "archived_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor()
+public class ArchivedDog {
+
+    // The id the dog had while live
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String breed;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "supplier_id", nullable = false)
+    private Supplier supplier;
+
+    // Not unique, as a badge may be reissued once its dog is archived
+    @Column(name = "badge_id")
+    private String badgeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "current_status")
+    private CurrentStatus currentStatus;
+
+    @Enumerated(EnumType.STRING)
+    private Gender gender;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leaving_reason")
+    private LeavingReason leavingReason;
+
+    @Column(name = "birth_date")
+    private LocalDate birthDate;
+
+    @Column(name = "date_acquired")
+    private LocalDate dateAcquired;
+
+    @Column(name = "leaving_date")
+    private LocalDate leavingDate;
+
+    private Long version;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // The dog's last update while live, i.e. its deletion
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ElementCollection
+    @CollectionTable(
+            name = "archived_dog_kennel_characteristics",
+            joinColumns = @JoinColumn(name = "dog_id")
+    )
+    @Column(name = "characteristic")
+    private Set<String> kennellingCharacteristics = new HashSet<>();
+}
@@ -15,10 +15,16 @@ import java.time.LocalDateTime;
 @Setter
 public abstract class BaseEntity {
 
+    // Sequence ids (pooled, allocated 50 at a time) let Hibernate batch inserts,
+    // which identity columns prevent as each row must be inserted to learn its id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
+    // Incremented by Hibernate on each update, for optimistic locking and ETags
+    @Version
+    private Long version;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -26,7 +32,8 @@ public abstract class BaseEntity {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
-    // Nothing should be deleted from the database for audit purposes
+    // Soft deleted, so a deleted row is kept for audit.
+    // Deleted dogs are later moved to the archive tables (see DogArchiveService)
     @Column(nullable = false)
     private boolean deleted = false;
 }
\ No newline at end of file
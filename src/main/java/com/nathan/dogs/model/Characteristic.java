@@ -0,0 +1,32 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Dictionary of kennelling characteristics. Each distinct characteristic is
+ * stored once, and dogs refer to it by a compact id rather than repeating the string.
+ * Never changed once created. Equal by name, as unresolved characteristics have no id.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class Characteristic {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Integer id;
+
+    @EqualsAndHashCode.Include
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    public Characteristic(String name) {
+        this.name = name;
+    }
+}
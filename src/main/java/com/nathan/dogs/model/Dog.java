@@ -11,6 +11,18 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Back the filters in DogSpecifications; most lead with deleted as every listing query filters on it
+@Table(indexes = {
+        @Index(name = "idx_dog_deleted_status", columnList = "deleted, current_status"),
+        @Index(name = "idx_dog_deleted_gender", columnList = "deleted, gender"),
+        @Index(name = "idx_dog_deleted_leaving_reason", columnList = "deleted, leaving_reason"),
+        @Index(name = "idx_dog_supplier", columnList = "supplier_id, deleted"),
+        @Index(name = "idx_dog_birth_date", columnList = "birth_date"),
+        @Index(name = "idx_dog_date_acquired", columnList = "date_acquired"),
+        @Index(name = "idx_dog_leaving_date", columnList = "leaving_date"),
+        // Finds deleted dogs due for archival (see DogArchiveService)
+        @Index(name = "idx_dog_deleted_updated_at", columnList = "deleted, updated_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor()
@@ -26,7 +38,7 @@ public class Dog extends BaseEntity{
 
     // May get more than 1 dog from the same supplier
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supplier_id", nullable = false)
     private Supplier supplier;
 
@@ -35,26 +47,32 @@ public class Dog extends BaseEntity{
 
     @NotNull
     @Enumerated(EnumType.STRING)
+    @Column(name = "current_status")
     private CurrentStatus currentStatus;
 
     @Enumerated(EnumType.STRING)
     private Gender gender;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "leaving_reason")
     private LeavingReason leavingReason;
 
+    @Column(name = "birth_date")
     private LocalDate birthDate;
 
+    @Column(name = "date_acquired")
     private LocalDate dateAcquired;
 
+    @Column(name = "leaving_date")
     private LocalDate leavingDate;
 
-    // Store unique characteristics in separate table
-    @ElementCollection
-    @CollectionTable(
-            name = "dog_kennel_characteristics",
-            joinColumns = @JoinColumn(name = "dog_id")
+    // Characteristics are interned (see CharacteristicService), so each dog stores only their ids
+    @ManyToMany
+    @JoinTable(
+            name = "dog_characteristic",
+            joinColumns = @JoinColumn(name = "dog_id"),
+            inverseJoinColumns = @JoinColumn(name = "characteristic_id"),
+            indexes = @Index(name = "idx_characteristic", columnList = "characteristic_id, dog_id")
     )
-    @Column(name = "characteristic")
-    private Set<String> kennellingCharacteristics = new HashSet<>();
+    private Set<Characteristic> kennellingCharacteristics = new HashSet<>();
 }
@@ -0,0 +1,48 @@
+package com.nathan.dogs.model;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry in the dog change log, written in the same transaction as the change.
+ * The sequence is the dog table version (see TableVersion) after the change,
+ * so entries are numbered in commit order, without gaps.
+ * Never changed once written.
+ */
+@Entity
+@Table(name = "dog_change")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogChange implements Persistable<Long> {
+
+    @Id
+    private Long seq;
+
+    @Column(name = "dog_id", nullable = false)
+    private Long dogId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DogChangedEvent.Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    // Sequences are assigned, so entries are always inserted rather than merged
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.nathan.dogs.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of DogOutput that can be requested with the fields parameter.
+ * Each is named as in the response, and as the Dog attribute it is read from.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DogField {
+
+    NAME("name"),
+    BREED("breed"),
+    BADGE_ID("badgeId"),
+    GENDER("gender"),
+    BIRTH_DATE("birthDate"),
+    DATE_ACQUIRED("dateAcquired"),
+    CURRENT_STATUS("currentStatus"),
+    // Loaded by a separate query, only when requested
+    KENNELLING_CHARACTERISTICS("kennellingCharacteristics");
+
+    private final String attribute;
+
+    /**
+     * @param fields: comma-separated field names, e.g. "name,badgeId".
+     * @return the fields, in DogOutput order.
+     */
+    public static Set<DogField> parse(String fields) {
+        Set<DogField> result = EnumSet.noneOf(DogField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.attribute.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + trimmed)));
+        }
+        if (result.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one field is required");
+        }
+        return result;
+    }
+}
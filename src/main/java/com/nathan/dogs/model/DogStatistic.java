@@ -0,0 +1,43 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Count of non-deleted dogs with a value for a field, e.g. breed Labrador.
+ * Updated in the same transaction as each change to dogs (see DogStatisticsService),
+ * so every instance reads the same committed counts.
+ */
+@Entity
+@Table(name = "dog_statistic")
+@IdClass(DogStatistic.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogStatistic {
+
+    @Id
+    private String field;
+
+    @Id
+    private String category;
+
+    @Column(nullable = false)
+    private long dogs;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String field;
+        private String category;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk import. rowsProcessed is the checkpoint:
+ * it is committed with each chunk of dogs, so a failed import
+ * can resume from the first row not yet written.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor()
+public class ImportJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DogFileFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    // Data rows written or rejected, excluding any header
+    private long rowsProcessed;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String failure;
+}
@@ -0,0 +1,27 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A row of an import that could not be parsed or failed validation.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_import_rejection_job", columnList = "job_id, row_no"))
+@Getter
+@Setter
+@NoArgsConstructor()
+public class ImportRejection extends BaseEntity {
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // 1-based, excluding any header
+    @Column(name = "row_no", nullable = false)
+    private long rowNumber;
+
+    @Column(nullable = false, length = 2000)
+    private String errors;
+}
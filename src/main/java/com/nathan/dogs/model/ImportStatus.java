@@ -0,0 +1,7 @@
+package com.nathan.dogs.model;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
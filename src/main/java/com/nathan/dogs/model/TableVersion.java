@@ -0,0 +1,35 @@
+package com.nathan.dogs.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Count of committed changes to a table, incremented in the same
+ * transaction as each change. A cheap watermark for collection ETags.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableVersion {
+
+    public static final String DOG = "dog";
+    public static final String CHARACTERISTIC = "characteristic";
+    // Every versioned table, seeded by TableVersionService
+    public static final List<String> TABLES = List.of(DOG, CHARACTERISTIC);
+
+    @Id
+    @Column(name = "table_name")
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,67 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.ArchivedDog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedDogRepository extends JpaRepository<ArchivedDog, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "supplier")
+    Page<ArchivedDog> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"supplier", "kennellingCharacteristics"})
+    Optional<ArchivedDog> findWithAssociationsById(Long id);
+
+    /**
+     * Initialise the kennelling characteristics of the given archived dogs in a single query,
+     * as for DogRepository.fetchKennellingCharacteristics.
+     */
+    @Query("""
+    SELECT DISTINCT d
+    FROM ArchivedDog d
+    LEFT JOIN FETCH d.kennellingCharacteristics
+    WHERE d.id IN :ids
+""")
+    List<ArchivedDog> fetchKennellingCharacteristics(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copy deleted dogs into the archive with a single INSERT ... SELECT,
+     * so rows are never loaded into the application.
+     * @param ids: of deleted dogs.
+     * @param archivedAt: time of archival.
+     * @return dogs copied.
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO archived_dog (id, name, breed, supplier_id, badge_id, current_status, gender,
+        leaving_reason, birth_date, date_acquired, leaving_date, version, created_at, deleted_at, archived_at)
+    SELECT id, name, breed, supplier_id, badge_id, current_status, gender,
+        leaving_reason, birth_date, date_acquired, leaving_date, version, created_at, updated_at, :archivedAt
+    FROM dog
+    WHERE id IN :ids
+    AND deleted = true
+""", nativeQuery = true)
+    int copyDeletedDogs(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Copy the characteristics of dogs copied by copyDeletedDogs, by name, so the archive stands alone
+    @Modifying
+    @Query(value = """
+    INSERT INTO archived_dog_kennel_characteristics (dog_id, characteristic)
+    SELECT dc.dog_id, c.name
+    FROM dog_characteristic dc
+    JOIN characteristic c ON c.id = dc.characteristic_id
+    WHERE dc.dog_id IN :ids
+""", nativeQuery = true)
+    int copyKennellingCharacteristics(@Param("ids") Collection<Long> ids);
+}
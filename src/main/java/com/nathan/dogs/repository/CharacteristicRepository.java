@@ -0,0 +1,15 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.Characteristic;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CharacteristicRepository extends JpaRepository<Characteristic, Integer> {
+
+    Optional<Characteristic> findByName(String name);
+
+    List<Characteristic> findByNameIn(Collection<String> names);
+}
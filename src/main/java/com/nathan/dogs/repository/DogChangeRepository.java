@@ -0,0 +1,30 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.DogChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface DogChangeRepository extends JpaRepository<DogChange, Long> {
+
+    List<DogChange> findBySeqGreaterThanOrderBySeq(long seq, Limit limit);
+
+    @Query("SELECT MIN(c.seq) FROM DogChange c")
+    Optional<Long> findFirstSeq();
+
+    @Query("SELECT MAX(c.seq) FROM DogChange c")
+    Optional<Long> findLastSeq();
+
+    @Query("SELECT MAX(c.seq) FROM DogChange c WHERE c.changedAt < :before")
+    Optional<Long> findLastSeqBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM DogChange c WHERE c.seq <= :seq")
+    int deleteUpTo(@Param("seq") long seq);
+}
@@ -0,0 +1,11 @@
+package com.nathan.dogs.repository;
+
+/**
+ * Projection of a dog id and one of its kennelling characteristics.
+ */
+public interface DogCharacteristicEntry {
+
+    Long getId();
+
+    String getCharacteristic();
+}
@@ -0,0 +1,12 @@
+package com.nathan.dogs.repository;
+
+/**
+ * Projection of a grouped count of dogs.
+ */
+public interface DogCount {
+
+    // Grouped value, e.g. a CurrentStatus or breed; null for dogs without one
+    Object getCategory();
+
+    long getDogs();
+}
@@ -1,27 +1,238 @@
 package com.nathan.dogs.repository;
 
+import com.nathan.dogs.model.CurrentStatus;
 import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.LeavingReason;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface DogRepository extends JpaRepository<Dog, Long> {
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-    Page<Dog> findByDeletedFalse(Pageable pageable);
+import static com.nathan.dogs.constant.DogConstants.EXPORT_FETCH_SIZE;
 
-    Page<Dog> findByDeletedFalseAndNameContainingIgnoreCase(String name, Pageable pageable);
+public interface DogRepository extends JpaRepository<Dog, Long>, JpaSpecificationExecutor<Dog>, DogRepositoryCustom {
 
-    Page<Dog> findByDeletedFalseAndBreedContainingIgnoreCase(String breed, Pageable pageable);
+    /**
+     * Query a page of dogs matching the filter specification (see DogSpecifications).
+     * Suppliers are joined into the page query rather than loaded per dog.
+     */
+    @Override
+    @EntityGraph(attributePaths = "supplier")
+    Page<Dog> findAll(Specification<Dog> spec, Pageable pageable);
 
+    /**
+     * Initialise the kennelling characteristics of the given dogs in a single query.
+     * Collections can't be fetch joined into a paged query, so pages are loaded first,
+     * then their characteristics are loaded here instead of lazily per dog.
+     * @param ids: ids of dogs already loaded in the persistence context.
+     * @return the dogs, with characteristics initialised.
+     */
     @Query("""
     SELECT DISTINCT d
     FROM Dog d
+    LEFT JOIN FETCH d.kennellingCharacteristics
+    WHERE d.id IN :ids
+""")
+    List<Dog> fetchKennellingCharacteristics(@Param("ids") Collection<Long> ids);
+
+    // Characteristic names of the given dogs, without loading the dogs, for sparse fieldsets
+    @Query("""
+    SELECT d.id AS id, c.name AS characteristic
+    FROM Dog d
+    JOIN d.kennellingCharacteristics c
+    WHERE d.id IN :ids
+""")
+    List<DogCharacteristicEntry> findCharacteristicEntries(@Param("ids") Collection<Long> ids);
+
+    // Query a dog by id, unless deleted
+    @EntityGraph(attributePaths = {"supplier", "kennellingCharacteristics"})
+    Optional<Dog> findByIdAndDeletedFalse(Long id);
+
+    // Version of a non-deleted dog, for ETags, without loading it
+    @Query("SELECT d.version FROM Dog d WHERE d.id = :id AND d.deleted = false")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Load dogs with their supplier and characteristics in a single query, e.g. to snapshot them.
+     * @param ids: ids of dogs.
+     * @return the dogs, fully initialised.
+     */
+    @Query("""
+    SELECT DISTINCT d
+    FROM Dog d
+    JOIN FETCH d.supplier
+    LEFT JOIN FETCH d.kennellingCharacteristics
+    WHERE d.id IN :ids
+""")
+    List<Dog> fetchWithAssociations(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Load non-deleted dogs by badge id, with their supplier and characteristics, in a single query.
+     * @param badgeIds: badge ids of dogs.
+     * @return the dogs found, fully initialised.
+     */
+    @Query("""
+    SELECT DISTINCT d
+    FROM Dog d
+    JOIN FETCH d.supplier
+    LEFT JOIN FETCH d.kennellingCharacteristics
+    WHERE d.badgeId IN :badgeIds
+    AND d.deleted = false
+""")
+    List<Dog> fetchByBadgeIds(@Param("badgeIds") Collection<String> badgeIds);
+
+    /**
+     * Lock non-deleted dogs until the transaction ends, so they can't be changed by
+     * another transaction between being checked against a filter and updated.
+     * Waits for transactions already changing them to commit.
+     * @param ids: ids of dogs.
+     * @return ids of the dogs locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.id FROM Dog d WHERE d.id IN :ids AND d.deleted = false")
+    List<Long> lockForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Apply a status patch to many dogs in one statement. Null values leave a field unchanged.
+     * Audit and version columns are set here, as entity listeners and Hibernate's
+     * versioning don't apply to bulk updates. Deleted dogs are never updated.
+     * Loaded dogs are cleared from the persistence context, as they are now stale.
+     * @return dogs updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+    UPDATE Dog d
+    SET d.currentStatus = COALESCE(:currentStatus, d.currentStatus),
+        d.leavingDate = COALESCE(:leavingDate, d.leavingDate),
+        d.leavingReason = COALESCE(:leavingReason, d.leavingReason),
+        d.updatedAt = :updatedAt,
+        d.version = d.version + 1
+    WHERE d.id IN :ids
+    AND d.deleted = false
+""")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("currentStatus") CurrentStatus currentStatus,
+                     @Param("leavingDate") LocalDate leavingDate,
+                     @Param("leavingReason") LeavingReason leavingReason,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Query ids of dogs deleted before a time, i.e. ready to archive (see DogArchiveService).
+     * Dogs with no updatedAt were deleted before it was recorded, so are always included.
+     * @param deletedBefore: latest deletion (last update) time to include.
+     * @param limit: maximum number of ids.
+     * @return ids, in ascending order.
+     */
+    @Query("""
+    SELECT d.id
+    FROM Dog d
+    WHERE d.deleted = true
+    AND (d.updatedAt IS NULL OR d.updatedAt < :deletedBefore)
+    ORDER BY d.id
+""")
+    List<Long> findArchivableIds(@Param("deletedBefore") LocalDateTime deletedBefore, Limit limit);
+
+    // Remove the characteristics of archived dogs, before the dogs themselves
+    @Modifying
+    @Query(value = "DELETE FROM dog_characteristic WHERE dog_id IN :ids", nativeQuery = true)
+    int deleteKennellingCharacteristics(@Param("ids") Collection<Long> ids);
+
+    // Remove archived dogs. Only ever deleted dogs, which are copied to the archive first
+    @Modifying
+    @Query(value = "DELETE FROM dog WHERE id IN :ids AND deleted = true", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.badgeId FROM Dog d WHERE d.badgeId IN :badgeIds")
+    Set<String> findExistingBadgeIds(@Param("badgeIds") Collection<String> badgeIds);
+
+    /**
+     * Stream every non-deleted dog in id order, from a JDBC cursor
+     * fetching EXPORT_FETCH_SIZE rows at a time.
+     * Dogs are loaded read-only, so no dirty-checking snapshots are kept.
+     * Must be consumed, and closed, within a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT d
+    FROM Dog d
+    JOIN FETCH d.supplier
+    WHERE d.deleted = false
+    ORDER BY d.id
+""")
+    Stream<Dog> streamByDeletedFalse();
+
+    // Must be consumed within a transaction
+    @Query("""
+    SELECT d.id AS id, d.name AS name, d.breed AS breed, s.name AS supplier
+    FROM Dog d
+    JOIN d.supplier s
+    WHERE d.deleted = false
+""")
+    Stream<DogSearchEntry> streamSearchEntries();
+
+    // Searchable fields of the given dogs, unless deleted
+    @Query("""
+    SELECT d.id AS id, d.name AS name, d.breed AS breed, s.name AS supplier
+    FROM Dog d
     JOIN d.supplier s
+    WHERE d.id IN :ids
+    AND d.deleted = false
+""")
+    List<DogSearchEntry> findSearchEntries(@Param("ids") Collection<Long> ids);
+
+    // Must be consumed within a transaction
+    @Query("""
+    SELECT d.id AS id, c.name AS characteristic
+    FROM Dog d
+    JOIN d.kennellingCharacteristics c
     WHERE d.deleted = false
-      AND LOWER(s) LIKE LOWER(CONCAT('%', :supplier, '%'))
 """)
-    Page<Dog> findByDeletedFalseAndSupplierContainingIgnoreCase(@Param("supplier") String supplier, Pageable pageable);
+    Stream<DogCharacteristicEntry> streamCharacteristicEntries();
+
+    // Must be consumed within a transaction
+    @Query("SELECT d.id FROM Dog d WHERE d.deleted = false")
+    Stream<Long> streamIds();
+
+    // Ids of the given dogs, unless deleted
+    @Query("SELECT d.id FROM Dog d WHERE d.id IN :ids AND d.deleted = false")
+    List<Long> findNotDeletedIds(@Param("ids") Collection<Long> ids);
+
+    // Grouped counts of non-deleted dogs, for DogStatisticsService
+    @Query("SELECT d.currentStatus AS category, COUNT(d) AS dogs FROM Dog d WHERE d.deleted = false GROUP BY d.currentStatus")
+    List<DogCount> countByCurrentStatus();
+
+    @Query("SELECT d.gender AS category, COUNT(d) AS dogs FROM Dog d WHERE d.deleted = false GROUP BY d.gender")
+    List<DogCount> countByGender();
+
+    @Query("SELECT d.breed AS category, COUNT(d) AS dogs FROM Dog d WHERE d.deleted = false GROUP BY d.breed")
+    List<DogCount> countByBreed();
+
+    @Query("SELECT s.name AS category, COUNT(d) AS dogs FROM Dog d JOIN d.supplier s WHERE d.deleted = false GROUP BY s.name")
+    List<DogCount> countBySupplier();
+
+    @Query("SELECT d.leavingReason AS category, COUNT(d) AS dogs FROM Dog d WHERE d.deleted = false GROUP BY d.leavingReason")
+    List<DogCount> countByLeavingReason();
 
 }
@@ -0,0 +1,33 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.Dog;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries on dogs that Spring Data can't derive, implemented in DogRepositoryCustomImpl.
+ */
+public interface DogRepositoryCustom {
+
+    /**
+     * Select only the ids of dogs matching a specification, without loading them.
+     * @param spec: filter, see DogSpecifications.
+     * @param limit: maximum number of ids.
+     * @return matching ids, in ascending order.
+     */
+    List<Long> findIds(Specification<Dog> spec, int limit);
+
+    /**
+     * Select only the given attributes of dogs matching a specification, without loading them.
+     * Only the joins needed by the specification and sort are made.
+     * @param spec: filter, see DogSpecifications.
+     * @param attributes: single-valued attributes of Dog, e.g. name.
+     * @param pageable: page and sort, no count is run.
+     * @return a tuple per dog, holding its id and each attribute, aliased by name.
+     */
+    List<Tuple> findAttributes(Specification<Dog> spec, Collection<String> attributes, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.nathan.dogs.repository;
+
+/**
+ * Projection of the searchable text fields of a dog.
+ */
+public interface DogSearchEntry {
+
+    Long getId();
+
+    String getName();
+
+    String getBreed();
+
+    String getSupplier();
+}
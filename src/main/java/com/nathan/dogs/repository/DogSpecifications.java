@@ -0,0 +1,77 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.Dog;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Predicates for filtering dogs, composed by DogFilter into a single query.
+ * Each is backed by an index declared on Dog.
+ */
+public final class DogSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    // prevent instantiation
+    private DogSpecifications() {}
+
+    public static Specification<Dog> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.<Boolean>get("deleted"));
+    }
+
+    public static Specification<Dog> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    public static Specification<Dog> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.<Long>get("id"), id);
+    }
+
+    // Case-insensitive contains, matching the semantics of Spring Data's ContainingIgnoreCase
+    public static Specification<Dog> contains(String attribute, String value) {
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get(attribute)), containsPattern(value), ESCAPE);
+    }
+
+    public static Specification<Dog> supplierContains(String value) {
+        return (root, query, cb) -> cb.like(cb.lower(root.join("supplier").<String>get("name")), containsPattern(value), ESCAPE);
+    }
+
+    public static Specification<Dog> in(String attribute, Collection<?> values) {
+        return (root, query, cb) -> root.get(attribute).in(values);
+    }
+
+    public static Specification<Dog> onOrAfter(String attribute, LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get(attribute), date);
+    }
+
+    public static Specification<Dog> onOrBefore(String attribute, LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get(attribute), date);
+    }
+
+    // Uses a subquery rather than a join, so dogs aren't duplicated across pages
+    public static Specification<Dog> hasCharacteristic(String characteristic) {
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Dog> dog = subquery.from(Dog.class);
+            Join<Dog, Characteristic> characteristics = dog.join("kennellingCharacteristics");
+            subquery.select(dog.<Long>get("id"))
+                    .where(cb.equal(characteristics.get("name"), characteristic));
+            return root.get("id").in(subquery);
+        };
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,17 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.DogStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DogStatisticRepository extends JpaRepository<DogStatistic, DogStatistic.Key> {
+
+    /**
+     * @return rows updated, 0 if there is no count for the category yet.
+     */
+    @Modifying
+    @Query("UPDATE DogStatistic s SET s.dogs = s.dogs + :delta WHERE s.field = :field AND s.category = :category")
+    int increment(@Param("field") String field, @Param("category") String category, @Param("delta") long delta);
+}
@@ -0,0 +1,7 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+}
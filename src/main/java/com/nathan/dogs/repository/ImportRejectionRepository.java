@@ -0,0 +1,12 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.ImportRejection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ImportRejectionRepository extends JpaRepository<ImportRejection, Long> {
+
+    List<ImportRejection> findByJobIdOrderByRowNumber(Long jobId, Pageable pageable);
+}
@@ -3,9 +3,13 @@ package com.nathan.dogs.repository;
 import com.nathan.dogs.model.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
     Optional<Supplier> findByName(String name);
+
+    List<Supplier> findByNameIn(Collection<String> names);
 }
@@ -0,0 +1,32 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.TableVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TableVersionRepository extends JpaRepository<TableVersion, String> {
+
+    @Query("SELECT t.version FROM TableVersion t WHERE t.name = :name")
+    Optional<Long> findVersion(@Param("name") String name);
+
+    /**
+     * Lock the table's version row until the transaction ends.
+     * @return the table's version, empty if it has no version row yet.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.version FROM TableVersion t WHERE t.name = :name")
+    Optional<Long> lockVersion(@Param("name") String name);
+
+    /**
+     * @return rows updated, 0 if the table has no version row yet.
+     */
+    @Modifying
+    @Query("UPDATE TableVersion t SET t.version = t.version + :changes WHERE t.name = :name")
+    int increment(@Param("name") String name, @Param("changes") long changes);
+}
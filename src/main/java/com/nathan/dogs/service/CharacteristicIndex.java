@@ -0,0 +1,180 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.repository.DogCharacteristicEntry;
+import com.nathan.dogs.repository.DogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static com.nathan.dogs.service.DogSearchIndex.MAX_CANDIDATES;
+
+/**
+ * In-memory bitmap index of kennelling characteristics: one compressed
+ * (Roaring) bitmap of dog ids per characteristic, plus one of every dog.
+ * Answers "has all of these, and none of those" by intersecting bitmaps,
+ * without scanning the characteristic table.
+ * Built from the database on startup, then kept up to date from
+ * DogChangedEvents once each change commits, and from the change log,
+ * which also has changes committed by other instances (see DogIndexFeed).
+ * Only non-deleted dogs are indexed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CharacteristicIndex {
+
+    private final DogRepository dogRepository;
+
+    // Guarded by this
+    private final Map<String, Roaring64NavigableMap> bitmaps = new HashMap<>();
+    private final Roaring64NavigableMap all = new Roaring64NavigableMap();
+    private boolean ready = false;
+    // Changes applied while rebuilding, replayed onto the rebuilt index. Null when not rebuilding
+    private List<Runnable> pending;
+
+    /**
+     * Find ids of dogs with every required characteristic, and none of the excluded ones.
+     * @param required: characteristics every match has.
+     * @param excluded: characteristics no match has.
+     * @return matching ids, or empty if the index can't answer the search
+     * (index not built, or too many matches) and the caller should query the database directly.
+     */
+    public synchronized Optional<Set<Long>> search(Collection<String> required, Collection<String> excluded) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<Roaring64NavigableMap> requiredBitmaps = new ArrayList<>();
+        for (String characteristic : required) {
+            Roaring64NavigableMap bitmap = bitmaps.get(characteristic);
+            if (bitmap == null) return Optional.of(Set.of());
+            requiredBitmaps.add(bitmap);
+        }
+        // Start from the rarest, so every intersection is at most its size
+        requiredBitmaps.sort(Comparator.comparingLong(Roaring64NavigableMap::getLongCardinality));
+
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        result.or(requiredBitmaps.isEmpty() ? all : requiredBitmaps.getFirst());
+        for (int i = 1; i < requiredBitmaps.size(); i++) {
+            result.and(requiredBitmaps.get(i));
+        }
+        for (String characteristic : excluded) {
+            Roaring64NavigableMap bitmap = bitmaps.get(characteristic);
+            if (bitmap != null) result.andNot(bitmap);
+        }
+
+        if (result.getLongCardinality() > MAX_CANDIDATES) {
+            return Optional.empty();
+        }
+        Set<Long> ids = new HashSet<>();
+        LongIterator iterator = result.getLongIterator();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+        }
+        return Optional.of(ids);
+    }
+
+    /**
+     * Build the index from the database, then swap it in, replaying the changes committed
+     * while building, which the database read may or may not include. Replaying a change
+     * leaves its dog in its state after the change either way.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Map<String, Roaring64NavigableMap> built = new HashMap<>();
+        Roaring64NavigableMap builtAll = new Roaring64NavigableMap();
+        try {
+            try (Stream<Long> ids = dogRepository.streamIds()) {
+                ids.forEach(builtAll::addLong);
+            }
+            try (Stream<DogCharacteristicEntry> entries = dogRepository.streamCharacteristicEntries()) {
+                entries.forEach(entry -> built.computeIfAbsent(entry.getCharacteristic(), c -> new Roaring64NavigableMap())
+                        .addLong(entry.getId()));
+            }
+            built.values().forEach(Roaring64NavigableMap::runOptimize);
+            synchronized (this) {
+                bitmaps.clear();
+                bitmaps.putAll(built);
+                all.clear();
+                all.or(builtAll);
+                pending.forEach(Runnable::run);
+                ready = true;
+            }
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+        log.info("Characteristic index built for {} characteristics", built.size());
+    }
+
+    /**
+     * Re-read dogs from the database, e.g. once changed by another instance.
+     * Dogs no longer found, or deleted, are removed.
+     * @param ids: of dogs changed.
+     */
+    @Transactional(readOnly = true)
+    public void refresh(Collection<Long> ids) {
+        List<Long> found = dogRepository.findNotDeletedIds(ids);
+        Map<Long, List<String>> characteristics = new HashMap<>();
+        if (!found.isEmpty()) {
+            dogRepository.findCharacteristicEntries(found).forEach(entry -> characteristics
+                    .computeIfAbsent(entry.getId(), id -> new ArrayList<>())
+                    .add(entry.getCharacteristic()));
+        }
+        apply(() -> {
+            // Characteristics are few, so every bitmap is checked rather than reading those the dog had
+            ids.forEach(id -> remove(id, List.copyOf(bitmaps.keySet())));
+            found.forEach(id -> add(id, characteristics.getOrDefault(id, List.of())));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogChanged(DogChangedEvent event) {
+        apply(() -> {
+            if (event.getBefore() != null) {
+                DogSnapshot dog = event.getBefore();
+                remove(dog.getId(), dog.getKennellingCharacteristics());
+            }
+            if (event.getAfter() != null && !event.getAfter().isDeleted()) {
+                DogSnapshot dog = event.getAfter();
+                add(dog.getId(), dog.getKennellingCharacteristics());
+            }
+        });
+    }
+
+    private synchronized void apply(Runnable change) {
+        change.run();
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private void add(Long id, Collection<String> characteristics) {
+        all.addLong(id);
+        for (String characteristic : characteristics) {
+            bitmaps.computeIfAbsent(characteristic, c -> new Roaring64NavigableMap()).addLong(id);
+        }
+    }
+
+    private void remove(Long id, Collection<String> characteristics) {
+        all.removeLong(id);
+        for (String characteristic : characteristics) {
+            Roaring64NavigableMap bitmap = bitmaps.get(characteristic);
+            if (bitmap == null) continue;
+            bitmap.removeLong(id);
+            if (bitmap.isEmpty()) bitmaps.remove(characteristic);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.CharacteristicRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns kennelling characteristics into the Characteristic dictionary,
+ * so dogs store a compact id per characteristic rather than the string.
+ * Characteristics are few and never changed once created, so every
+ * resolved characteristic is held in memory, and only new names reach the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class CharacteristicService {
+
+    private final CharacteristicRepository characteristicRepository;
+    private final TableVersionService tableVersionService;
+
+    private final Map<String, Characteristic> characteristics = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve characteristics by name, creating any that don't exist, within the caller's transaction.
+     * Creation is serialised on the characteristic table's version row, so concurrent requests
+     * creating the same name wait for each other rather than conflicting. Characteristics
+     * created by a transaction that rolls back are rolled back with it, and never held in memory.
+     * @param names: distinct characteristic names.
+     * @return Characteristic entities keyed by name.
+     */
+    @Transactional
+    public Map<String, Characteristic> findOrCreateCharacteristics(Collection<String> names) {
+        Map<String, Characteristic> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Characteristic cached = characteristics.get(name);
+            if (cached == null) {
+                missing.add(name);
+            } else {
+                found.put(name, cached);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        findByNameIn(missing, found);
+        List<String> absent = missing.stream().filter(name -> !found.containsKey(name)).toList();
+        if (!absent.isEmpty()) {
+            // Wait for any other transaction creating characteristics to end, then check again
+            tableVersionService.lock(TableVersion.CHARACTERISTIC);
+            findByNameIn(absent, found);
+            List<Characteristic> created = absent.stream()
+                    .filter(name -> !found.containsKey(name))
+                    .map(Characteristic::new)
+                    .toList();
+            characteristicRepository.saveAll(created)
+                    .forEach(characteristic -> found.put(characteristic.getName(), characteristic));
+        }
+
+        Map<String, Characteristic> resolved = new HashMap<>();
+        missing.forEach(name -> resolved.put(name, found.get(name)));
+        afterCommit(() -> characteristics.putAll(resolved));
+        return found;
+    }
+
+    private void findByNameIn(Collection<String> names, Map<String, Characteristic> found) {
+        characteristicRepository.findByNameIn(names)
+                .forEach(characteristic -> found.put(characteristic.getName(), characteristic));
+    }
+
+    // Only committed characteristics are held in memory, as a rolled back one doesn't exist
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.ArchivedDogOutput;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.ArchivedDog;
+import com.nathan.dogs.repository.ArchivedDogRepository;
+import com.nathan.dogs.repository.DogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves deleted dogs, with their characteristics, out of the dog table into
+ * the archive tables, so live queries only scan active rows however many
+ * dogs have been deleted. Archived dogs stay readable for audit.
+ * Dogs are archived once deleted for dogs.archive.retention, in batches of
+ * dogs.archive.batch-size, each copied and removed in its own transaction.
+ * Deleted dogs are already excluded from listings, statistics and the
+ * search index, so archiving changes none of them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogArchiveService {
+
+    private static final String ARCHIVED_DOG_NOT_FOUND = "Archived dog not found";
+
+    private final DogRepository dogRepository;
+    private final ArchivedDogRepository archivedDogRepository;
+    private final DogMapper dogMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final DogsProperties properties;
+
+    /**
+     * Query a page of archived dogs.
+     * @param pageable: pagination and sorting.
+     * @return page of archived dogs.
+     */
+    @Transactional(readOnly = true)
+    public Page<ArchivedDogOutput> getArchivedDogs(Pageable pageable) {
+        Page<ArchivedDog> dogs = archivedDogRepository.findAll(pageable);
+        if (dogs.hasContent()) {
+            archivedDogRepository.fetchKennellingCharacteristics(dogs.map(ArchivedDog::getId).getContent());
+        }
+        return dogs.map(dogMapper::toArchivedOutputDto);
+    }
+
+    /**
+     * @param id: the id the dog had while live.
+     * @return archived dog.
+     */
+    @Transactional(readOnly = true)
+    public ArchivedDogOutput getArchivedDog(Long id) {
+        return archivedDogRepository.findWithAssociationsById(id)
+                .map(dogMapper::toArchivedOutputDto)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ARCHIVED_DOG_NOT_FOUND));
+    }
+
+    /**
+     * Archive every dog deleted longer ago than the retention period.
+     * Another instance archiving the same dogs fails on the archive's primary key,
+     * rolling back its batch, so each dog is archived once.
+     * @return dogs archived.
+     */
+    @Scheduled(fixedDelayString = "${dogs.archive.interval:PT1H}",
+            initialDelayString = "${dogs.archive.interval:PT1H}")
+    public long archive() {
+        DogsProperties.Archive config = properties.getArchive();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deletedBefore = now.minus(config.getRetention());
+
+        long archived = 0;
+        int batch;
+        do {
+            batch = transaction.execute(status -> archiveBatch(deletedBefore, now, config.getBatchSize()));
+            archived += batch;
+        } while (batch == config.getBatchSize());
+
+        if (archived > 0) {
+            log.info("Archived {} deleted dogs", archived);
+        }
+        return archived;
+    }
+
+    // Must be called within a transaction, so a batch is either fully moved or left in place
+    private int archiveBatch(LocalDateTime deletedBefore, LocalDateTime archivedAt, int batchSize) {
+        List<Long> ids = dogRepository.findArchivableIds(deletedBefore, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedDogRepository.copyDeletedDogs(ids, archivedAt);
+        archivedDogRepository.copyKennellingCharacteristics(ids);
+        dogRepository.deleteKennellingCharacteristics(ids);
+        dogRepository.deleteArchived(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,33 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.nathan.dogs.constant.DogConstants.DOGS_CACHE;
+
+/**
+ * Evicts a dog from the dogs cache once a change to it commits.
+ * Eviction waits for any load of the same dog already in progress,
+ * so a load that read the dog before the change can't outlive it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DogCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogChanged(DogChangedEvent event) {
+        if (event.getType() == DogChangedEvent.Type.CREATED) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(DOGS_CACHE);
+        if (cache != null) {
+            cache.evict(event.getDogId());
+        }
+    }
+}
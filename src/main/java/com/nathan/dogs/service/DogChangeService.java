@@ -0,0 +1,203 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.DogChangeOutput;
+import com.nathan.dogs.dto.DogChanges;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.DogChange;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogChangeRepository;
+import com.nathan.dogs.repository.DogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.nathan.dogs.constant.DogConstants.MAX_PAGE_SIZE;
+
+/**
+ * Ordered log of changes to dogs, so clients can pull what changed since
+ * they last looked rather than re-reading the listing.
+ * Each change is numbered by the dog table version (see TableVersionService)
+ * it produced. The version row is locked until commit, so changes become
+ * visible in sequence order, and a reader that has seen N has seen every change up to N.
+ * Changes are purged once older than dogs.changes.retention; a reader further
+ * behind than the oldest change left is answered 410 and must re-read the listing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogChangeService {
+
+    private static final String CHANGES_PURGED = "Changes since then have been purged, re-read the listing";
+
+    private final DogChangeRepository dogChangeRepository;
+    private final DogRepository dogRepository;
+    private final TableVersionService tableVersionService;
+    private final DogMapper dogMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final DogsProperties properties;
+
+    /**
+     * Record changes, and bump the dog table version, within the caller's transaction.
+     * @param events: changes, in the order they were made.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<DogChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long seq = tableVersionService.bump(TableVersion.DOG, events.size()) - events.size();
+        LocalDateTime now = LocalDateTime.now();
+        List<DogChange> changes = new ArrayList<>(events.size());
+        for (DogChangedEvent event : events) {
+            changes.add(new DogChange(++seq, event.getDogId(), event.getType(), now));
+        }
+        dogChangeRepository.saveAll(changes);
+    }
+
+    /**
+     * Query changes after a sequence number, with the current state of each changed dog.
+     * @param since: last sequence number seen, 0 for every change.
+     * @param limit: maximum number of changes.
+     * @return changes in sequence order, and the sequence number to continue from.
+     * @throws ResponseStatusException 410 if changes after since have been purged.
+     */
+    @Transactional(readOnly = true)
+    public DogChanges getChanges(long since, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        // Fetch one extra change to find whether there are more, without a count
+        List<DogChange> changes = changesAfter(since, size + 1);
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+
+        // Load every changed dog in one query
+        Set<Long> ids = changes.stream()
+                .filter(change -> change.getType() != DogChangedEvent.Type.DELETED)
+                .map(DogChange::getDogId)
+                .collect(Collectors.toSet());
+        Map<Long, DogOutput> dogs = ids.isEmpty() ? Map.of() : dogRepository.fetchWithAssociations(ids).stream()
+                .filter(dog -> !dog.isDeleted())
+                .collect(Collectors.toMap(Dog::getId, dogMapper::toOutputDto));
+
+        List<DogChangeOutput> output = changes.stream()
+                .map(change -> DogChangeOutput.builder()
+                        .seq(change.getSeq())
+                        .dogId(change.getDogId())
+                        .type(change.getType())
+                        .changedAt(change.getChangedAt())
+                        .dog(dogs.get(change.getDogId()))
+                        .build())
+                .toList();
+        return DogChanges.builder()
+                .changes(output)
+                .lastSeq(changes.isEmpty() ? since : changes.getLast().getSeq())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Query changes after a sequence number, without loading the changed dogs,
+     * e.g. for in-memory indexes to re-read only the dogs changed.
+     * @param since: last sequence number seen, 0 for every change.
+     * @param limit: maximum number of changes.
+     * @return changes in sequence order; fewer than limit once there are no more.
+     * @throws ResponseStatusException 410 if changes after since have been purged.
+     */
+    @Transactional(readOnly = true)
+    public List<DogChange> getChangedDogs(long since, int limit) {
+        return changesAfter(since, Math.max(limit, 1));
+    }
+
+    /**
+     * @return sequence number of the last committed change, 0 if none.
+     */
+    @Transactional(readOnly = true)
+    public long getLastSeq() {
+        return tableVersionService.current(TableVersion.DOG);
+    }
+
+    /**
+     * Check that every change after a sequence number is still in the log.
+     * @param since: last sequence number seen.
+     * @throws ResponseStatusException 410 if changes after since have been purged.
+     */
+    @Transactional(readOnly = true)
+    public void requireRetained(long since) {
+        if (dogChangeRepository.findFirstSeq().orElse(0L) > since + 1) {
+            throw purged();
+        }
+    }
+
+    /**
+     * Purge changes older than the retention period, dogs.changes.purge-batch-size per transaction.
+     * The newest change is always kept, so the oldest sequence number still
+     * readable is known however long ago dogs last changed.
+     * @return changes purged.
+     */
+    @Scheduled(fixedDelayString = "${dogs.changes.purge-interval:PT1H}",
+            initialDelayString = "${dogs.changes.purge-interval:PT1H}")
+    public long purge() {
+        DogsProperties.Changes config = properties.getChanges();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime before = LocalDateTime.now().minus(config.getRetention());
+        long upTo = transaction.execute(status -> purgeableUpTo(before));
+
+        long purged = 0;
+        int batch;
+        do {
+            batch = transaction.execute(status -> purgeBatch(upTo, config.getPurgeBatchSize()));
+            purged += batch;
+        } while (batch > 0);
+
+        if (purged > 0) {
+            log.info("Purged {} changes from the change log", purged);
+        }
+        return purged;
+    }
+
+    // Sequence number of the last change made before the given time, short of the newest; 0 if none
+    private long purgeableUpTo(LocalDateTime before) {
+        return dogChangeRepository.findLastSeqBefore(before)
+                .map(seq -> Math.min(seq, dogChangeRepository.findLastSeq().orElse(seq) - 1))
+                .orElse(0L);
+    }
+
+    // Must be called within a transaction. Sequence numbers have no gaps, so deletes up to batchSize changes
+    private int purgeBatch(long upTo, int batchSize) {
+        long first = dogChangeRepository.findFirstSeq().orElse(upTo + 1);
+        return first > upTo ? 0 : dogChangeRepository.deleteUpTo(Math.min(upTo, first + batchSize - 1));
+    }
+
+    private List<DogChange> changesAfter(long since, int limit) {
+        List<DogChange> changes = dogChangeRepository.findBySeqGreaterThanOrderBySeq(since, Limit.of(limit));
+        // Changes are numbered without gaps, so a gap after since was purged
+        if (!changes.isEmpty() && changes.getFirst().getSeq() > since + 1) {
+            throw purged();
+        }
+        return changes;
+    }
+
+    private static ResponseStatusException purged() {
+        return new ResponseStatusException(HttpStatus.GONE, CHANGES_PURGED);
+    }
+}
@@ -0,0 +1,212 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.DogChangeOutput;
+import com.nathan.dogs.dto.DogChanges;
+import com.nathan.dogs.event.DogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the change log (see DogChangeService) to subscribers as Server-Sent Events,
+ * each with the change's sequence number as its id, so a client reconnecting
+ * with Last-Event-ID resumes where it left off.
+ * New changes are read from the log once each commits, and on a short poll,
+ * which also picks up changes committed by other instances. Each read is shared
+ * by every subscriber, which are sent the changes they haven't seen from memory;
+ * only a subscriber behind those held, e.g. one resuming, reads the log itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DogChangeStream {
+
+    static final String EVENT_NAME = "change";
+
+    private final DogChangeService dogChangeService;
+    private final DogsProperties properties;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Changes most recently read from the log, null until read for a subscriber
+    private volatile Recent recent;
+    private final ReentrantLock reading = new ReentrantLock();
+    // Signals arriving while a read is queued are coalesced into it
+    private final AtomicBoolean readQueued = new AtomicBoolean();
+
+    /**
+     * @param since: last sequence number seen. Changes after it are sent first.
+     * @return emitter, sending changes until it times out or the client disconnects.
+     * @throws org.springframework.web.server.ResponseStatusException 410 if changes after since have been purged.
+     */
+    public SseEmitter subscribe(long since) {
+        dogChangeService.requireRetained(since);
+        SseEmitter emitter = new SseEmitter(properties.getChanges().getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        if (recent == null) {
+            // Signalled once the first read completes
+            signalRead();
+        } else {
+            subscriber.signal();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogChanged(DogChangedEvent event) {
+        signalRead();
+    }
+
+    @Scheduled(fixedDelayString = "${dogs.changes.poll-interval:PT5S}")
+    public void poll() {
+        signalRead();
+    }
+
+    private void signalRead() {
+        if (readQueued.compareAndSet(false, true)) {
+            senders.execute(this::read);
+        }
+    }
+
+    // Reads changes after those last read, once for every subscriber, then signals them
+    private void read() {
+        reading.lock();
+        try {
+            readQueued.set(false);
+            if (subscribers.isEmpty()) {
+                // Nobody to send to; the next subscriber starts from the end of the log
+                recent = null;
+                return;
+            }
+            Recent last = recent != null ? recent : Recent.at(dogChangeService.getLastSeq());
+            List<DogChangeOutput> changes = new ArrayList<>();
+            DogChanges batch;
+            long lastSeq = last.to();
+            do {
+                batch = dogChangeService.getChanges(lastSeq, properties.getChanges().getBatchSize());
+                changes.addAll(batch.getChanges());
+                lastSeq = batch.getLastSeq();
+            } while (batch.isHasMore());
+            recent = last.append(changes, properties.getChanges().getBufferSize());
+        } catch (RuntimeException e) {
+            // e.g. purged while nobody was subscribed; subscribers read the log themselves until the next read
+            log.warn("Failed to read the change log", e);
+            recent = null;
+        } finally {
+            reading.unlock();
+        }
+        subscribers.forEach(Subscriber::signal);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        // Guarded by sending
+        private long lastSeq;
+        private final ReentrantLock sending = new ReentrantLock();
+        // Signals arriving while a send is queued are coalesced into it
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long lastSeq) {
+            this.emitter = emitter;
+            this.lastSeq = lastSeq;
+        }
+
+        void signal() {
+            if (queued.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        // Sends every change after lastSeq. Runs one at a time, so changes are sent once and in order
+        private void send() {
+            sending.lock();
+            try {
+                queued.set(false);
+                boolean hasMore;
+                do {
+                    Recent shared = recent;
+                    List<DogChangeOutput> changes;
+                    if (shared != null && lastSeq >= shared.from()) {
+                        changes = shared.after(lastSeq);
+                        hasMore = false;
+                    } else {
+                        // Behind the changes held in memory
+                        DogChanges batch = dogChangeService.getChanges(lastSeq, properties.getChanges().getBatchSize());
+                        changes = batch.getChanges();
+                        hasMore = batch.isHasMore();
+                    }
+                    for (DogChangeOutput change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.getSeq()))
+                                .name(EVENT_NAME)
+                                .data(change));
+                        lastSeq = change.getSeq();
+                    }
+                } while (hasMore);
+            } catch (IOException | RuntimeException e) {
+                // Usually the client disconnecting; it can resume from its Last-Event-ID
+                log.debug("Change stream closed", e);
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                sending.unlock();
+            }
+        }
+    }
+
+    /**
+     * Changes read from the log after from, up to to, in sequence order.
+     */
+    private record Recent(long from, long to, List<DogChangeOutput> changes) {
+
+        static Recent at(long seq) {
+            return new Recent(seq, seq, List.of());
+        }
+
+        List<DogChangeOutput> after(long seq) {
+            return changes.stream().dropWhile(change -> change.getSeq() <= seq).toList();
+        }
+
+        // Holds at most size changes, dropping the oldest
+        Recent append(List<DogChangeOutput> read, int size) {
+            if (read.isEmpty()) {
+                return this;
+            }
+            List<DogChangeOutput> all = new ArrayList<>(changes);
+            all.addAll(read);
+            long to = read.getLast().getSeq();
+            if (all.size() <= size) {
+                return new Recent(from, to, List.copyOf(all));
+            }
+            List<DogChangeOutput> kept = all.subList(all.size() - size, all.size());
+            return new Recent(all.get(all.size() - size - 1).getSeq(), to, List.copyOf(kept));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nathan.dogs.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the position of the last dog returned by cursor pagination
+ * as an opaque, url-safe continuation token.
+ * Dogs are ordered by id, so the id alone identifies the position.
+ */
+final class DogCursor {
+
+    private static final String VERSION = "v1:";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // prevent instantiation
+    private DogCursor() {}
+
+    static String encode(Long lastId) {
+        return ENCODER.encodeToString((VERSION + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor: token from a previous slice, or blank for the first slice.
+     * @return id to seek after.
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(VERSION)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(VERSION.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.nathan.dogs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.mapper.DogCsvMapper;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.repository.DogRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.nathan.dogs.constant.DogConstants.EXPORT_FETCH_SIZE;
+
+/**
+ * Service to export the full dog register.
+ * Dogs are streamed from a database cursor straight to the output in chunks,
+ * and the persistence context is cleared after each chunk, so memory use
+ * stays flat regardless of the number of dogs.
+ */
+@Service
+@RequiredArgsConstructor
+public class DogExportService {
+
+    private final DogRepository dogRepository;
+    private final DogMapper dogMapper;
+    private final DogCsvMapper dogCsvMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Write every non-deleted dog to the output, in id order.
+     * Read-only, so the export takes no write locks.
+     * @param format: NDJSON (one JSON object per line) or CSV (with a header row).
+     * @param output: stream to write to; flushed but not closed.
+     * @return number of dogs exported.
+     */
+    @Transactional(readOnly = true)
+    public long export(DogFileFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == DogFileFormat.CSV) {
+            dogCsvMapper.writeHeader(writer);
+        }
+
+        long count = 0;
+        List<Dog> chunk = new ArrayList<>(EXPORT_FETCH_SIZE);
+        try (Stream<Dog> dogs = dogRepository.streamByDeletedFalse()) {
+            Iterator<Dog> iterator = dogs.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    count += writeChunk(format, chunk, writer);
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private int writeChunk(DogFileFormat format, List<Dog> chunk, Writer writer) throws IOException {
+        // Load characteristics for the chunk in one query, rather than one per dog
+        dogRepository.fetchKennellingCharacteristics(chunk.stream().map(Dog::getId).toList());
+        for (Dog dog : chunk) {
+            if (format == DogFileFormat.CSV) {
+                dogCsvMapper.write(writer, dogMapper.toExportDto(dog));
+            } else {
+                writer.write(objectMapper.writeValueAsString(dogMapper.toExportDto(dog)));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        // Detach the written dogs, so the persistence context doesn't grow with the export
+        entityManager.clear();
+        return chunk.size();
+    }
+}
@@ -0,0 +1,134 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.LeavingReason;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+import static com.nathan.dogs.constant.DogConstants.*;
+import static com.nathan.dogs.repository.DogSpecifications.*;
+
+/**
+ * Compiles the listing filter parameters into a single Specification.
+ * All provided filters are combined with AND; multi-valued filters
+ * (statuses, genders, leaving reasons, characteristics) take a comma-separated list.
+ * Characteristic filters are resolved from CharacteristicIndex where it can answer them.
+ * Unknown filter keys and malformed values are rejected with a 400.
+ */
+@Component
+@RequiredArgsConstructor
+public class DogFilter {
+
+    private final DogSearchIndex dogSearchIndex;
+    private final CharacteristicIndex characteristicIndex;
+
+    /**
+     * @param filter: request parameters, which may include pagination parameters.
+     * @return specification matching non-deleted dogs that satisfy every filter.
+     */
+    public Specification<Dog> toSpecification(Map<String, String> filter) {
+        Specification<Dog> spec = notDeleted();
+        if (filter == null) {
+            return spec;
+        }
+        for (Map.Entry<String, String> entry : filter.entrySet()) {
+            String key = entry.getKey();
+            if (NON_FILTER_PARAMS.contains(key) || CHARACTERISTIC.equals(key) || WITHOUT_CHARACTERISTIC.equals(key)) {
+                continue;
+            }
+            spec = spec.and(toSpecification(key, entry.getValue()));
+        }
+        // Required and excluded characteristics are answered together, by one bitmap intersection
+        if (filter.containsKey(CHARACTERISTIC) || filter.containsKey(WITHOUT_CHARACTERISTIC)) {
+            spec = spec.and(characteristics(filter.get(CHARACTERISTIC), filter.get(WITHOUT_CHARACTERISTIC)));
+        }
+        return spec;
+    }
+
+    private Specification<Dog> toSpecification(String key, String value) {
+        return switch (key) {
+            case NAME, BREED, SUPPLIER -> text(key, value);
+            case CURRENT_STATUS -> in("currentStatus", enums(key, value, CurrentStatus.class));
+            case GENDER -> in("gender", enums(key, value, Gender.class));
+            case LEAVING_REASON -> in("leavingReason", enums(key, value, LeavingReason.class));
+            case BIRTH_DATE_FROM -> onOrAfter("birthDate", date(key, value));
+            case BIRTH_DATE_TO -> onOrBefore("birthDate", date(key, value));
+            case DATE_ACQUIRED_FROM -> onOrAfter("dateAcquired", date(key, value));
+            case DATE_ACQUIRED_TO -> onOrBefore("dateAcquired", date(key, value));
+            case LEAVING_DATE_FROM -> onOrAfter("leavingDate", date(key, value));
+            case LEAVING_DATE_TO -> onOrBefore("leavingDate", date(key, value));
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown filter: " + key);
+        };
+    }
+
+    // Substring searches are resolved from the trigram index where it can answer
+    private Specification<Dog> text(String field, String value) {
+        Optional<Set<Long>> candidates = dogSearchIndex.search(field, value);
+        if (candidates.isPresent()) {
+            return idIn(candidates.get());
+        }
+        return SUPPLIER.equals(field) ? supplierContains(value) : contains(field, value);
+    }
+
+    private Specification<Dog> characteristics(String required, String excluded) {
+        List<String> with = characteristicValues(CHARACTERISTIC, required);
+        List<String> without = characteristicValues(WITHOUT_CHARACTERISTIC, excluded);
+        Optional<Set<Long>> candidates = characteristicIndex.search(with, without);
+        if (candidates.isPresent()) {
+            return idIn(candidates.get());
+        }
+        List<Specification<Dog>> specs = new ArrayList<>();
+        with.forEach(characteristic -> specs.add(hasCharacteristic(characteristic)));
+        without.forEach(characteristic -> specs.add(Specification.not(hasCharacteristic(characteristic))));
+        return Specification.allOf(specs);
+    }
+
+    // Absent filters have no values, but provided filters must have at least one
+    private static List<String> characteristicValues(String key, String value) {
+        if (value == null) {
+            return List.of();
+        }
+        List<String> values = values(value);
+        if (values.isEmpty()) throw invalid(key, value);
+        return values;
+    }
+
+    private static <E extends Enum<E>> Set<E> enums(String key, String value, Class<E> type) {
+        try {
+            Set<E> result = EnumSet.noneOf(type);
+            values(value).forEach(v -> result.add(Enum.valueOf(type, v.toUpperCase(Locale.ROOT))));
+            if (result.isEmpty()) throw invalid(key, value);
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw invalid(key, value);
+        }
+    }
+
+    private static LocalDate date(String key, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid(key, value);
+        }
+    }
+
+    private static List<String> values(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .toList();
+    }
+
+    private static ResponseStatusException invalid(String key, String value) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for filter " + key + ": " + value);
+    }
+}
@@ -0,0 +1,310 @@
+package com.nathan.dogs.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.ImportReport;
+import com.nathan.dogs.mapper.DogCsvMapper;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.model.ImportJob;
+import com.nathan.dogs.model.ImportRejection;
+import com.nathan.dogs.model.ImportStatus;
+import com.nathan.dogs.model.Supplier;
+import com.nathan.dogs.repository.ImportJobRepository;
+import com.nathan.dogs.repository.ImportRejectionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service to import dogs in bulk from CSV or NDJSON.
+ * The request thread parses rows into chunks while a writer thread validates
+ * and persists the previous chunk, connected by a bounded queue.
+ * Each chunk commits with the job's checkpoint, so a failed import can be
+ * resumed with the same file, skipping rows already written.
+ * Rows that can't be parsed or fail validation are recorded and skipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogImportService {
+
+    private static final String IMPORT_NOT_FOUND = "Import not found";
+    // Marks the end of input on the chunk queue, compared by identity
+    private static final List<ParsedRow> END = new ArrayList<>();
+
+    private final DogService dogService;
+    private final DogInputValidator dogInputValidator;
+    private final DogCsvMapper dogCsvMapper;
+    private final ObjectMapper objectMapper;
+    private final ImportJobRepository importJobRepository;
+    private final ImportRejectionRepository importRejectionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DogsProperties properties;
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    // Imports running on this instance, so a job can't be resumed while still running
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start a new import, blocking until the input has been fully imported or fails.
+     * @param format: format of the input.
+     * @param chunkSize: rows per committed chunk, or null for the default.
+     * @param input: CSV (with a header row) or NDJSON.
+     * @return report of the import.
+     */
+    public ImportReport startImport(DogFileFormat format, Integer chunkSize, InputStream input) {
+        DogsProperties.BulkImport config = properties.getBulkImport();
+        ImportJob job = new ImportJob();
+        job.setFormat(format);
+        job.setChunkSize(Math.clamp(chunkSize == null ? config.getChunkSize() : chunkSize, 1, config.getMaxChunkSize()));
+        job.setStatus(ImportStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+        running.add(job.getId());
+        return run(job, input);
+    }
+
+    /**
+     * Resume an import that failed, or was interrupted by a shutdown, from its last checkpoint.
+     * @param jobId: id of the import.
+     * @param input: the same input the import was started with.
+     * @return report of the import.
+     */
+    public ImportReport resumeImport(Long jobId, InputStream input) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, IMPORT_NOT_FOUND));
+        if (job.getStatus() == ImportStatus.COMPLETED || !running.add(jobId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import is completed or still running");
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        job.setFailure(null);
+        job.setFinishedAt(null);
+        job = importJobRepository.save(job);
+        return run(job, input);
+    }
+
+    public ImportReport getImport(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, IMPORT_NOT_FOUND));
+        return report(job, 0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private ImportReport run(ImportJob job, InputStream input) {
+        Long jobId = job.getId();
+        long checkpoint = job.getRowsProcessed();
+        int chunkSize = job.getChunkSize();
+        long start = System.nanoTime();
+
+        BlockingQueue<List<ParsedRow>> queue = new ArrayBlockingQueue<>(properties.getBulkImport().getQueueCapacity());
+        Future<?> writer = writers.submit(() -> write(jobId, queue));
+        try {
+            Iterator<ParsedRow> rows = parse(job.getFormat(), input);
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                ParsedRow row = rows.next();
+                // Rows up to the checkpoint were written by a previous run
+                if (row.number() <= checkpoint) continue;
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    put(queue, chunk, writer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                put(queue, chunk, writer);
+            }
+            put(queue, END, writer);
+            writer.get();
+            finish(jobId, ImportStatus.COMPLETED, null);
+        } catch (Exception e) {
+            writer.cancel(true);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.warn("Import {} failed", jobId, cause);
+            finish(jobId, ImportStatus.FAILED, String.valueOf(cause.getMessage()));
+        } finally {
+            running.remove(jobId);
+        }
+
+        ImportJob finished = importJobRepository.findById(jobId).orElseThrow();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return report(finished, seconds <= 0 ? 0 : (finished.getRowsProcessed() - checkpoint) / seconds);
+    }
+
+    // Hand a chunk to the writer, giving up if the writer has stopped
+    private void put(BlockingQueue<List<ParsedRow>> queue, List<ParsedRow> chunk, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Import writer stopped");
+            }
+        }
+    }
+
+    private Void write(Long jobId, BlockingQueue<List<ParsedRow>> queue) throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ParsedRow> chunk;
+        while ((chunk = queue.take()) != END) {
+            List<ParsedRow> rows = chunk;
+            transaction.executeWithoutResult(status -> writeChunk(jobId, rows));
+        }
+        return null;
+    }
+
+    // Validate and save a chunk, recording rejections and the checkpoint in the same transaction
+    private void writeChunk(Long jobId, List<ParsedRow> chunk) {
+        List<ParsedRow> parsed = chunk.stream().filter(row -> row.input() != null).toList();
+        List<CreateDogInput> inputs = parsed.stream().map(ParsedRow::input).toList();
+        Map<Integer, Map<String, String>> errors = dogInputValidator.validateInputs(inputs);
+        // Before the transaction's first statement, see DogService.resolveSuppliers
+        List<CreateDogInput> accepted = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!errors.containsKey(i)) {
+                accepted.add(inputs.get(i));
+            }
+        }
+        Map<String, Supplier> suppliers = dogService.resolveSuppliers(accepted);
+        dogInputValidator.validateBadgeIds(inputs, errors);
+
+        List<CreateDogInput> valid = new ArrayList<>();
+        List<ImportRejection> rejections = new ArrayList<>();
+        for (ParsedRow row : chunk) {
+            if (row.input() == null) {
+                rejections.add(rejection(jobId, row.number(), row.error()));
+            }
+        }
+        for (int i = 0; i < parsed.size(); i++) {
+            Map<String, String> rowErrors = errors.get(i);
+            if (rowErrors == null) {
+                valid.add(parsed.get(i).input());
+            } else {
+                rejections.add(rejection(jobId, parsed.get(i).number(), rowErrors.entrySet().stream()
+                        .map(error -> error.getKey() + ": " + error.getValue())
+                        .collect(Collectors.joining("; "))));
+            }
+        }
+
+        dogService.saveDogs(valid, suppliers);
+        importRejectionRepository.saveAll(rejections);
+
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setRowsProcessed(job.getRowsProcessed() + chunk.size());
+        job.setRowsImported(job.getRowsImported() + valid.size());
+        job.setRowsRejected(job.getRowsRejected() + rejections.size());
+    }
+
+    private void finish(Long jobId, ImportStatus status, String failure) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setStatus(status);
+        job.setFailure(failure == null ? null : failure.substring(0, Math.min(failure.length(), 1000)));
+        job.setFinishedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+    }
+
+    // Parse rows lazily, numbering from 1 (excluding any header). Unparseable rows carry their error.
+    private Iterator<ParsedRow> parse(DogFileFormat format, InputStream input) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(CreateDogInput.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        if (format == DogFileFormat.CSV) {
+            Iterator<Map<String, Object>> records = dogCsvMapper.read(in);
+            return new Iterator<>() {
+                private long number = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public ParsedRow next() {
+                    Map<String, Object> record = records.next();
+                    number++;
+                    try {
+                        return new ParsedRow(number, reader.readValue(objectMapper.<JsonNode>valueToTree(record)), null);
+                    } catch (IOException | IllegalArgumentException e) {
+                        return new ParsedRow(number, null, e.getMessage());
+                    }
+                }
+            };
+        }
+
+        Iterator<String> lines = in.lines().filter(line -> !line.isBlank()).iterator();
+        return new Iterator<>() {
+            private long number = 0;
+
+            @Override
+            public boolean hasNext() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public ParsedRow next() {
+                String line = lines.next();
+                number++;
+                try {
+                    return new ParsedRow(number, reader.readValue(line), null);
+                } catch (IOException e) {
+                    return new ParsedRow(number, null, e.getMessage());
+                }
+            }
+        };
+    }
+
+    private ImportReport report(ImportJob job, double rowsPerSecond) {
+        List<ImportReport.Rejection> rejections = importRejectionRepository
+                .findByJobIdOrderByRowNumber(job.getId(), PageRequest.of(0, properties.getBulkImport().getMaxReportedRejections()))
+                .stream()
+                .map(rejection -> ImportReport.Rejection.builder()
+                        .row(rejection.getRowNumber())
+                        .errors(rejection.getErrors())
+                        .build())
+                .toList();
+        return ImportReport.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .rowsProcessed(job.getRowsProcessed())
+                .rowsImported(job.getRowsImported())
+                .rowsRejected(job.getRowsRejected())
+                .rowsPerSecond(rowsPerSecond)
+                .failure(job.getFailure())
+                .rejections(rejections)
+                .build();
+    }
+
+    private static ImportRejection rejection(Long jobId, long rowNumber, String errors) {
+        ImportRejection rejection = new ImportRejection();
+        rejection.setJobId(jobId);
+        rejection.setRowNumber(rowNumber);
+        rejection.setErrors(errors == null ? "invalid row" : errors.substring(0, Math.min(errors.length(), 2000)));
+        return rejection;
+    }
+
+    private record ParsedRow(long number, CreateDogInput input, String error) {}
+}
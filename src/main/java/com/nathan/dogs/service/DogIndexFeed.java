@@ -0,0 +1,103 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.model.DogChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory indexes (DogSearchIndex, CharacteristicIndex) in step with every instance's
+ * changes, by tailing the change log (see DogChangeService) on a short poll and re-reading each changed dog.
+ * DogChangedEvents only reach the instance that made the change, so without this,
+ * an instance's indexes would never see another's changes.
+ * Builds the indexes on startup, and again if the log has been purged past the last change read.
+ */
+@Slf4j
+@Component
+public class DogIndexFeed {
+
+    private final DogChangeService dogChangeService;
+    private final DogSearchIndex dogSearchIndex;
+    private final CharacteristicIndex characteristicIndex;
+    private final DogsProperties properties;
+    private final TransactionTemplate readOnly;
+
+    // Sequence number of the last change applied, -1 until the indexes are built. Guarded by this
+    private long lastSeq = -1;
+
+    public DogIndexFeed(DogChangeService dogChangeService,
+                        DogSearchIndex dogSearchIndex,
+                        CharacteristicIndex characteristicIndex,
+                        DogsProperties properties,
+                        PlatformTransactionManager transactionManager) {
+        this.dogChangeService = dogChangeService;
+        this.dogSearchIndex = dogSearchIndex;
+        this.characteristicIndex = characteristicIndex;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Build the indexes, then apply changes from the log after the last one committed before building.
+     * Both are read in one transaction, so with read replicas from the same one, and no change is missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lastSeq = readOnly.execute(status -> {
+            long seq = dogChangeService.getLastSeq();
+            dogSearchIndex.rebuild();
+            characteristicIndex.rebuild();
+            return seq;
+        });
+    }
+
+    /**
+     * Re-read the dogs changed since the last poll, by any instance, a batch of changes per transaction.
+     * Changes this instance made have already been applied from their events; re-reading them is harmless.
+     */
+    @Scheduled(fixedDelayString = "${dogs.changes.poll-interval:PT5S}")
+    public synchronized void poll() {
+        if (lastSeq < 0) {
+            // Not built yet
+            return;
+        }
+        int batchSize = properties.getChanges().getBatchSize();
+        try {
+            int read;
+            do {
+                read = readOnly.execute(status -> applyBatch(batchSize));
+            } while (read == batchSize);
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() != HttpStatus.GONE) {
+                throw e;
+            }
+            log.warn("Changes since {} have been purged, rebuilding the indexes", lastSeq);
+            rebuild();
+        }
+    }
+
+    // Must be called within a transaction, so the dogs are read from the same replica as the log
+    private int applyBatch(int batchSize) {
+        List<DogChange> changes = dogChangeService.getChangedDogs(lastSeq, batchSize);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        Set<Long> ids = changes.stream().map(DogChange::getDogId).collect(Collectors.toSet());
+        dogSearchIndex.refresh(ids);
+        characteristicIndex.refresh(ids);
+        lastSeq = changes.getLast().getSeq();
+        return changes.size();
+    }
+}
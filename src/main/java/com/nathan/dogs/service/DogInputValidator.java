@@ -0,0 +1,80 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.repository.DogRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Validates batches of dogs before creation, for bulk create and import.
+ * Applies bean validation to each dog, and checks badge ids are unique
+ * within the batch and against existing dogs. Checks needing no query are
+ * separate, so callers can act on their result before their transaction takes a connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class DogInputValidator {
+
+    private final Validator validator;
+    private final DogRepository dogRepository;
+
+    /**
+     * Validate dogs without querying: bean validation, and badge ids unique within the batch.
+     * @param inputs: dogs to validate.
+     * @return errors keyed by index in inputs, then by field. Valid dogs have no entry.
+     */
+    public Map<Integer, Map<String, String>> validateInputs(List<CreateDogInput> inputs) {
+        Map<Integer, Map<String, String>> errors = new TreeMap<>();
+        Set<String> badgeIds = new HashSet<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            CreateDogInput input = inputs.get(i);
+            if (input == null) {
+                error(errors, i, "", "must not be null");
+                continue;
+            }
+            for (ConstraintViolation<CreateDogInput> violation : validator.validate(input)) {
+                error(errors, i, violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            if (input.getBadgeId() != null && !badgeIds.add(input.getBadgeId())) {
+                error(errors, i, "badgeId", "duplicate badgeId in request");
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Check badge ids against existing dogs, in a single query.
+     * @param inputs: dogs to validate.
+     * @param errors: from validateInputs, to which errors are added.
+     */
+    public void validateBadgeIds(List<CreateDogInput> inputs, Map<Integer, Map<String, String>> errors) {
+        Set<String> badgeIds = new HashSet<>();
+        for (CreateDogInput input : inputs) {
+            if (input != null && input.getBadgeId() != null) {
+                badgeIds.add(input.getBadgeId());
+            }
+        }
+        if (!badgeIds.isEmpty()) {
+            Set<String> existing = dogRepository.findExistingBadgeIds(badgeIds);
+            for (int i = 0; i < inputs.size(); i++) {
+                CreateDogInput input = inputs.get(i);
+                if (input != null && input.getBadgeId() != null && existing.contains(input.getBadgeId())) {
+                    error(errors, i, "badgeId", "badgeId already exists");
+                }
+            }
+        }
+    }
+
+    private static void error(Map<Integer, Map<String, String>> errors, int index, String field, String message) {
+        errors.computeIfAbsent(index, i -> new LinkedHashMap<>()).putIfAbsent(field, message);
+    }
+}
@@ -0,0 +1,170 @@
+package com.nathan.dogs.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.datasource.ReadYourWrites;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.limit.DeferredPermit;
+import com.nathan.dogs.model.TableVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.nathan.dogs.constant.DogConstants.NON_FILTER_PARAMS;
+
+/**
+ * Single-flight for listing queries: while one request runs a query, identical
+ * requests wait for and share its page, rather than each running its own query,
+ * count and mapping. Completed pages may also be reused for dogs.listing-coalescing.reuse-window.
+ * Requests are identical if they have the same filters, in any order, the same page and sort,
+ * and observe the same listing version, so none is answered with data older than a change
+ * committed before it. The version is the latest this instance has seen (see TableVersionService.latest),
+ * which includes the one read for the request's ETag, so it costs no query of its own.
+ * Requests pinned to the primary (see ReadYourWrites) only share with each other.
+ * Listings are admitted to the expensive bulkhead without a permit (see DeferredPermit),
+ * and only a request running its query takes one, so an identical stampede isn't shed.
+ * Records dogs.listing.coalesced by outcome: executed, joined or reused.
+ */
+@Component
+public class DogListingCoalescer {
+
+    private final TableVersionService tableVersionService;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+
+    private final Map<Key, CompletableFuture<Versioned<Page<DogOutput>>>> running = new ConcurrentHashMap<>();
+    // Null when completed pages aren't reused
+    private final Cache<Key, Versioned<Page<DogOutput>>> completed;
+
+    private final Counter executed;
+    private final Counter joined;
+    private final Counter reused;
+
+    public DogListingCoalescer(TableVersionService tableVersionService,
+                               PlatformTransactionManager transactionManager,
+                               DogsProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.tableVersionService = tableVersionService;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        DogsProperties.ListingCoalescing coalescing = properties.getListingCoalescing();
+        this.enabled = coalescing.isEnabled();
+        this.completed = enabled && coalescing.getReuseWindow().isPositive()
+                ? Caffeine.newBuilder()
+                    .expireAfterWrite(coalescing.getReuseWindow())
+                    .maximumSize(coalescing.getMaxReused())
+                    .build()
+                : null;
+        this.executed = counter(meterRegistry, "executed");
+        this.joined = counter(meterRegistry, "joined");
+        this.reused = counter(meterRegistry, "reused");
+    }
+
+    /**
+     * Run a listing query, or share the page of an identical one.
+     * The query runs in a read-only transaction, so requests waiting on it hold no connection,
+     * after reading the listing version in the same transaction. With read replicas, both are
+     * read from the same one, so the version is never newer than the page it is sent with.
+     * @throws com.nathan.dogs.exception.ConcurrencyLimitExceededException if the query can't be run
+     * now, to this request and those sharing it.
+     * @param filter: filter parameters, as for DogService.getDogs.
+     * @param pageable: pagination and sorting.
+     * @param query: queries and maps the page.
+     * @return page of dogs, with the listing version it was read at,
+     * shared with identical requests, so must not be modified.
+     */
+    public Versioned<Page<DogOutput>> getDogs(Map<String, String> filter, Pageable pageable,
+                                              Supplier<Page<DogOutput>> query) {
+        if (!enabled) {
+            DeferredPermit.acquire();
+            return readOnly.execute(status -> run(query));
+        }
+        Key key = new Key(tableVersionService.latest(TableVersion.DOG), ReadYourWrites.isPinned(),
+                filters(filter), pageable);
+        if (completed != null) {
+            Versioned<Page<DogOutput>> page = completed.getIfPresent(key);
+            if (page != null) {
+                reused.increment();
+                return page;
+            }
+        }
+
+        CompletableFuture<Versioned<Page<DogOutput>>> future = new CompletableFuture<>();
+        CompletableFuture<Versioned<Page<DogOutput>>> identical = running.putIfAbsent(key, future);
+        if (identical != null) {
+            joined.increment();
+            return join(identical);
+        }
+        executed.increment();
+        try {
+            // Only requests running their query take a concurrency permit, so those sharing it aren't shed
+            DeferredPermit.acquire();
+            Versioned<Page<DogOutput>> page = readOnly.execute(status -> run(query));
+            // Reusable before it stops being joinable, so no identical request runs it again in between
+            if (completed != null) {
+                completed.put(key, page);
+            }
+            future.complete(page);
+            return page;
+        } catch (RuntimeException | Error e) {
+            // Identical requests fail the same way, e.g. on an invalid filter; failures aren't reused
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key, future);
+        }
+    }
+
+    // Within the query's transaction, so on the same connection, and before it, so not newer than the page
+    private Versioned<Page<DogOutput>> run(Supplier<Page<DogOutput>> query) {
+        long version = tableVersionService.current(TableVersion.DOG);
+        return new Versioned<>(query.get(), version);
+    }
+
+    // Filters in key order, without pagination and other parameters that don't filter
+    private static SortedMap<String, String> filters(Map<String, String> filter) {
+        SortedMap<String, String> filters = new TreeMap<>();
+        if (filter != null) {
+            filter.forEach((name, value) -> {
+                if (!NON_FILTER_PARAMS.contains(name)) {
+                    filters.put(name, value);
+                }
+            });
+        }
+        return filters;
+    }
+
+    private static Versioned<Page<DogOutput>> join(CompletableFuture<Versioned<Page<DogOutput>>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("dogs.listing.coalesced")
+                .description("Listing requests, by whether they ran their query or shared another's")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(long version, boolean pinned, SortedMap<String, String> filters, Pageable pageable) {}
+}
@@ -0,0 +1,218 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.repository.DogRepository;
+import com.nathan.dogs.repository.DogSearchEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.nathan.dogs.constant.DogConstants.BREED;
+import static com.nathan.dogs.constant.DogConstants.NAME;
+import static com.nathan.dogs.constant.DogConstants.SUPPLIER;
+
+/**
+ * In-memory trigram index over dog name, breed and supplier name,
+ * answering case-insensitive substring searches without a LIKE '%x%' scan.
+ * Built from the database on startup, then kept up to date from
+ * DogChangedEvents once each change commits, and from the change log,
+ * which also has changes committed by other instances (see DogIndexFeed).
+ * Only non-deleted dogs are indexed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DogSearchIndex {
+
+    static final int GRAM_SIZE = 3;
+    // Beyond this many matches the filter isn't selective, and a scan is cheaper than a large IN list
+    static final int MAX_CANDIDATES = 10_000;
+
+    private final DogRepository dogRepository;
+
+    // Replaced whole by rebuild, otherwise only changed while holding this
+    private volatile Map<String, TrigramIndex> indexes = newIndexes();
+    private volatile boolean ready = false;
+    // Changes applied while rebuilding, replayed onto the rebuilt index. Null when not rebuilding. Guarded by this
+    private List<Consumer<Map<String, TrigramIndex>>> pending;
+
+    /**
+     * Find ids of dogs whose field contains the value, ignoring case.
+     * @param field: name, breed or supplier.
+     * @param value: substring to search for.
+     * @return matching ids, or empty if the index can't answer the search
+     * (index not built, value shorter than a trigram, or too many matches)
+     * and the caller should query the database directly.
+     */
+    public Optional<Set<Long>> search(String field, String value) {
+        TrigramIndex index = indexes.get(field);
+        if (!ready || index == null || value == null || value.length() < GRAM_SIZE) {
+            return Optional.empty();
+        }
+        return index.search(normalise(value));
+    }
+
+    /**
+     * Build the index from the database, then swap it in, replaying the changes applied
+     * while building, which the database read may or may not include. Searches are
+     * answered from the previous index until then. Replaying a change leaves its dog
+     * in its state after the change either way.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Map<String, TrigramIndex> built = newIndexes();
+            try (Stream<DogSearchEntry> entries = dogRepository.streamSearchEntries()) {
+                entries.forEach(entry -> add(built, entry));
+            }
+            synchronized (this) {
+                pending.forEach(change -> change.accept(built));
+                indexes = built;
+                ready = true;
+            }
+            log.info("Search index built for {} dogs", built.get(NAME).size());
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Re-read dogs from the database, e.g. once changed by another instance.
+     * Dogs no longer found, or deleted, are removed.
+     * @param ids: of dogs changed.
+     */
+    @Transactional(readOnly = true)
+    public void refresh(Collection<Long> ids) {
+        Map<Long, DogSearchEntry> entries = new HashMap<>();
+        dogRepository.findSearchEntries(ids).forEach(entry -> entries.put(entry.getId(), entry));
+        apply(target -> ids.forEach(id -> {
+            remove(target, id);
+            DogSearchEntry entry = entries.get(id);
+            if (entry != null) {
+                add(target, entry);
+            }
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogChanged(DogChangedEvent event) {
+        apply(target -> {
+            if (event.getBefore() != null) {
+                remove(target, event.getBefore().getId());
+            }
+            if (event.getAfter() != null && !event.getAfter().isDeleted()) {
+                DogSnapshot dog = event.getAfter();
+                add(target, dog.getId(), dog.getName(), dog.getBreed(), dog.getSupplier());
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<Map<String, TrigramIndex>> change) {
+        change.accept(indexes);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private static void add(Map<String, TrigramIndex> target, DogSearchEntry entry) {
+        add(target, entry.getId(), entry.getName(), entry.getBreed(), entry.getSupplier());
+    }
+
+    private static void add(Map<String, TrigramIndex> target, Long id, String name, String breed, String supplier) {
+        target.get(NAME).add(id, normalise(name));
+        target.get(BREED).add(id, normalise(breed));
+        target.get(SUPPLIER).add(id, normalise(supplier));
+    }
+
+    private static void remove(Map<String, TrigramIndex> target, Long id) {
+        target.values().forEach(index -> index.remove(id));
+    }
+
+    private static Map<String, TrigramIndex> newIndexes() {
+        return Map.of(
+                NAME, new TrigramIndex(),
+                BREED, new TrigramIndex(),
+                SUPPLIER, new TrigramIndex()
+        );
+    }
+
+    private static String normalise(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Inverted index of trigram to ids, for a single field.
+     * Candidates from the posting lists are verified against the stored
+     * value, so results match a contains search exactly.
+     */
+    static class TrigramIndex {
+
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+        private final Map<Long, String> values = new ConcurrentHashMap<>();
+
+        void add(Long id, String value) {
+            if (id == null || value == null) return;
+            values.put(id, value);
+            for (String gram : grams(value)) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String value = values.remove(id);
+            if (value == null) return;
+            for (String gram : grams(value)) {
+                postings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        Optional<Set<Long>> search(String value) {
+            // Every match must appear in the rarest trigram's posting list, so only that list is verified
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(value)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) return Optional.of(Set.of());
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> result = new HashSet<>();
+            for (Long id : lists.get(0)) {
+                String candidate = values.get(id);
+                if (candidate != null && candidate.contains(value)) {
+                    result.add(id);
+                    if (result.size() > MAX_CANDIDATES) return Optional.empty();
+                }
+            }
+            return Optional.of(result);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        private static Set<String> grams(String value) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM_SIZE));
+            }
+            return grams;
+        }
+    }
+}
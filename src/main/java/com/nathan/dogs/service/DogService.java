@@ -1,25 +1,61 @@
 package com.nathan.dogs.service;
 
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.datasource.ReadYourWrites;
+import com.nathan.dogs.dto.BulkUpdateDogInput;
 import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogBatch;
 import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.DogSlice;
 import com.nathan.dogs.dto.UpdateDogInput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.exception.BulkValidationException;
 import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.Characteristic;
 import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.DogField;
 import com.nathan.dogs.model.Supplier;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogCharacteristicEntry;
 import com.nathan.dogs.repository.DogRepository;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static com.nathan.dogs.constant.DogConstants.BREED;
+import static com.nathan.dogs.constant.DogConstants.DOGS_CACHE;
 import static com.nathan.dogs.constant.DogConstants.DOG_NOT_FOUND;
-import static com.nathan.dogs.constant.DogConstants.NAME;
-import static com.nathan.dogs.constant.DogConstants.SUPPLIER;
+import static com.nathan.dogs.constant.DogConstants.MAX_PAGE_SIZE;
+import static com.nathan.dogs.constant.DogConstants.NON_FILTER_PARAMS;
+import static com.nathan.dogs.repository.DogSpecifications.idGreaterThan;
+import static com.nathan.dogs.repository.DogSpecifications.idIn;
+import static com.nathan.dogs.repository.DogSpecifications.notDeleted;
 
 @RequiredArgsConstructor
 @Service
@@ -27,69 +63,444 @@ public class DogService {
 
     private final DogRepository dogRepository;
     private final SupplierService supplierService;
+    private final CharacteristicService characteristicService;
     private final DogMapper dogMapper;
+    private final DogFilter dogFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DogInputValidator dogInputValidator;
+    private final DogsProperties properties;
+    private final TableVersionService tableVersionService;
+    private final DogChangeService dogChangeService;
+    private final DogStatisticsService dogStatisticsService;
+    private final DogListingCoalescer dogListingCoalescer;
 
-    public Page<DogOutput> getDogs(Map<String, String> filter, Pageable pageable) {
-        if (filter == null || filter.isEmpty()) {
-            return mapPage(dogRepository.findByDeletedFalse(pageable));
-        }
-        // Query Dogs using filter
-        if (filter.containsKey(NAME)) {
-            return mapPage(findDogsByField(NAME, filter.get(NAME), pageable));
-        } else if (filter.containsKey(BREED)) {
-            return mapPage(findDogsByField(BREED, filter.get(BREED), pageable));
-        } else if (filter.containsKey(SUPPLIER)) {
-            return mapPage(findDogsByField(SUPPLIER, filter.get(SUPPLIER), pageable));
-        }
-        // Return all dogs if no filter
-        return mapPage(dogRepository.findByDeletedFalse(pageable));
+    /**
+     * Query a page of non-deleted dogs matching every provided filter.
+     * Identical concurrent requests share one query, see DogListingCoalescer,
+     * which also runs it in a read-only transaction.
+     * @param filter: filter parameters, compiled into one query by DogFilter.
+     * @param pageable: pagination and sorting.
+     * @return page of dogs, with the listing version it was read at.
+     */
+    public Versioned<Page<DogOutput>> getDogs(Map<String, String> filter, Pageable pageable) {
+        return dogListingCoalescer.getDogs(filter, pageable, () -> {
+            Specification<Dog> spec = dogFilter.toSpecification(filter);
+            return mapPage(dogRepository.findAll(spec, pageable));
+        });
     }
 
-    public DogOutput getDogById(Long id) {
-        Dog dog = dogRepository.findById(id)
+    /**
+     * Query dogs by cursor (keyset) pagination. Each slice seeks past the last
+     * id of the previous one, so cost does not grow with depth, and no count is run.
+     * @param filter: filter parameters, as for getDogs.
+     * @param cursor: continuation token from the previous slice, or blank to start.
+     * @param size: maximum number of dogs in the slice.
+     * @return slice of dogs, with the cursor for the next slice, and the listing version it was read at.
+     */
+    @Transactional(readOnly = true)
+    public Versioned<DogSlice> getDogsAfter(Map<String, String> filter, String cursor, int size) {
+        long afterId = DogCursor.decode(cursor);
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Specification<Dog> spec = dogFilter.toSpecification(filter).and(idGreaterThan(afterId));
+        long version = getListingVersion();
+
+        // Fetch one extra row to find whether there is a next slice, without a count
+        List<Dog> dogs = dogRepository.findBy(spec, query -> query.sortBy(Sort.by("id")).limit(limit + 1).all());
+        boolean hasNext = dogs.size() > limit;
+        Slice<Dog> slice = new SliceImpl<>(hasNext ? dogs.subList(0, limit) : dogs, PageRequest.of(0, limit), hasNext);
+
+        Slice<DogOutput> output = mapSlice(slice);
+        String nextCursor = hasNext
+                ? DogCursor.encode(slice.getContent().get(limit - 1).getId())
+                : null;
+        DogSlice dogSlice = DogSlice.builder()
+                .content(output.getContent())
+                .size(output.getNumberOfElements())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+        return new Versioned<>(dogSlice, version);
+    }
+
+    /**
+     * @return version of the dog table, changed by every committed create, update or delete.
+     * Read to answer If-None-Match for a listing, before querying it. Listings also
+     * read it within their own transaction, before their query, for the ETag they are sent with,
+     * as with read replicas the two transactions may read from different replicas.
+     */
+    public long getListingVersion() {
+        return tableVersionService.current(TableVersion.DOG);
+    }
+
+    /**
+     * @param id: of dog.
+     * @return version of the dog, changed by every committed update. Deleted dogs are not found.
+     */
+    @Transactional(readOnly = true)
+    public long getDogVersion(Long id) {
+        return dogRepository.findVersionById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DOG_NOT_FOUND));
+    }
+
+    /**
+     * Query a dog by id, from the dogs cache when present.
+     * Concurrent misses for the same id share one load, and cached dogs are
+     * evicted by DogCacheEvictor once a change to them commits.
+     * Misses are loaded from the primary, even with read replicas, as the cached dog is served to
+     * every client, so must not be older than a change any of them has seen committed.
+     * Deleted dogs are not found, see DogArchiveService for their records.
+     * @param id: of dog.
+     * @return dog, with the version it was read at.
+     */
+    @Cacheable(cacheNames = DOGS_CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public Versioned<DogOutput> getDogById(Long id) {
+        return loadDog(id);
+    }
+
+    /**
+     * Query a dog by id, replacing its entry in the dogs cache, e.g. one older
+     * than the dog's current version, put back by a load that read it before a change.
+     * @param id: of dog.
+     * @return dog, with the version it was read at.
+     */
+    @CachePut(cacheNames = DOGS_CACHE, key = "#id")
+    @Transactional(readOnly = true)
+    public Versioned<DogOutput> reloadDogById(Long id) {
+        return loadDog(id);
+    }
+
+    /**
+     * Query a page of non-deleted dogs, reading only the requested fields. Only their
+     * columns are selected, characteristics are queried only if requested, and the
+     * supplier is joined only to filter by it. No entities are loaded.
+     * @param filter: filter parameters, as for getDogs.
+     * @param fields: comma-separated DogOutput field names, see DogField.
+     * @param pageable: pagination and sorting.
+     * @return page of dogs, each holding only the requested fields, with the listing version it was read at.
+     */
+    @Transactional(readOnly = true)
+    public Versioned<Page<Map<String, Object>>> getDogFields(Map<String, String> filter, String fields,
+                                                             Pageable pageable) {
+        Specification<Dog> spec = dogFilter.toSpecification(filter);
+        Set<DogField> selected = DogField.parse(fields);
+        long version = getListingVersion();
+        List<Map<String, Object>> dogs = project(spec, selected, pageable);
+        return new Versioned<>(PageableExecutionUtils.getPage(dogs, pageable, () -> dogRepository.count(spec)), version);
+    }
+
+    /**
+     * Query a dog by id, reading only the requested fields, as for getDogFields.
+     * Not cached, as the dogs cache holds whole dogs.
+     * @param id: of dog.
+     * @param fields: comma-separated DogOutput field names, see DogField.
+     * @return dog, holding only the requested fields.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDogFieldsById(Long id, String fields) {
+        return project(notDeleted().and(idIn(List.of(id))), DogField.parse(fields), Pageable.unpaged()).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DOG_NOT_FOUND));
-        return dogMapper.toOutputDto(dog);
     }
 
+    /**
+     * Query many dogs by id in a single query, e.g. for integrations holding a list of ids.
+     * @param ids: of dogs, up to dogs.batch-lookup.max-size.
+     * @return dogs keyed by id, in request order, and the ids not found (or deleted).
+     */
+    @Transactional(readOnly = true)
+    public DogBatch<Long> getDogsByIds(List<Long> ids) {
+        return lookup(ids, dogRepository::fetchWithAssociations, Dog::getId);
+    }
+
+    /**
+     * Query many dogs by badge id in a single query.
+     * @param badgeIds: of dogs, up to dogs.batch-lookup.max-size.
+     * @return dogs keyed by badge id, in request order, and the badge ids not found (or deleted).
+     */
+    @Transactional(readOnly = true)
+    public DogBatch<String> getDogsByBadgeIds(List<String> badgeIds) {
+        return lookup(badgeIds, dogRepository::fetchByBadgeIds, Dog::getBadgeId);
+    }
+
+    @Transactional
     public DogOutput createDog(CreateDogInput input) {
         Dog dog = dogMapper.toEntity(input);
 
+        // The transaction's first statement, see resolveSuppliers
         Supplier supplier = supplierService.findOrCreateSupplier(input.getSupplier());
         dog.setSupplier(supplier);
+        resolveCharacteristics(List.of(dog));
 
         Dog savedDog = dogRepository.save(dog);
+        publish(List.of(DogChangedEvent.created(DogSnapshot.of(savedDog))));
         return dogMapper.toOutputDto(savedDog);
     }
 
+    /**
+     * Create many dogs in one transaction. Suppliers are resolved in a single
+     * pass, and dogs and their characteristics are written with batched inserts.
+     * Nothing is created unless every dog is valid, other than suppliers
+     * of a request rejected only for badge ids already in use, see resolveSuppliers.
+     * @param inputs: dogs to create.
+     * @return the created dogs, in the order provided.
+     * @throws BulkValidationException listing the errors of every invalid dog.
+     */
+    @Transactional
+    public List<DogOutput> createDogs(List<CreateDogInput> inputs) {
+        if (inputs.size() > properties.getBulk().getMaxSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A maximum of " + properties.getBulk().getMaxSize() + " dogs can be created at once");
+        }
+        Map<Integer, Map<String, String>> errors = dogInputValidator.validateInputs(inputs);
+        Map<String, Supplier> suppliers = errors.isEmpty() ? resolveSuppliers(inputs) : Map.of();
+        dogInputValidator.validateBadgeIds(inputs, errors);
+        if (!errors.isEmpty()) {
+            // Flatten to the same keys as request body validation, prefixed by index e.g. "[3].name"
+            Map<String, String> fieldErrors = new LinkedHashMap<>();
+            errors.forEach((index, fields) -> fields.forEach((field, message) ->
+                    fieldErrors.put("[" + index + "]" + (field.isEmpty() ? "" : "." + field), message)));
+            throw new BulkValidationException(fieldErrors);
+        }
+        return saveDogs(inputs, suppliers).stream()
+                .map(dogMapper::toOutputDto)
+                .toList();
+    }
+
+    /**
+     * Resolve the suppliers of dogs to create in a single pass, creating any that don't exist.
+     * Suppliers are created in their own transactions (see SupplierService), each taking a
+     * connection of its own, so this must be called before the caller's transaction runs its
+     * first statement: until then it holds no connection, so doesn't hold one while waiting.
+     * @param inputs: dogs to create. Dogs without a supplier are skipped, for validation to reject.
+     * @return Supplier entities, keyed by name.
+     */
+    public Map<String, Supplier> resolveSuppliers(List<CreateDogInput> inputs) {
+        Set<String> supplierNames = inputs.stream()
+                .filter(Objects::nonNull)
+                .map(CreateDogInput::getSupplier)
+                .filter(name -> name != null && !name.isBlank())
+                .collect(Collectors.toSet());
+        return supplierNames.isEmpty() ? Map.of() : supplierService.findOrCreateSuppliers(supplierNames);
+    }
+
+    /**
+     * Persist dogs that have already been validated (see DogInputValidator).
+     * Inserts are batched, as ids come from a pooled sequence.
+     * @param inputs: valid dogs to create.
+     * @param suppliers: of the dogs, keyed by name, see resolveSuppliers.
+     * @return the saved dog entities, in the order provided.
+     */
+    @Transactional
+    public List<Dog> saveDogs(List<CreateDogInput> inputs, Map<String, Supplier> suppliers) {
+        if (inputs.isEmpty()) {
+            return List.of();
+        }
+        List<Dog> dogs = inputs.stream()
+                .map(input -> {
+                    Dog dog = dogMapper.toEntity(input);
+                    dog.setSupplier(suppliers.get(input.getSupplier()));
+                    return dog;
+                })
+                .toList();
+        resolveCharacteristics(dogs);
+        List<Dog> savedDogs = dogRepository.saveAll(dogs);
+        publish(savedDogs.stream()
+                .map(dog -> DogChangedEvent.created(DogSnapshot.of(dog)))
+                .toList());
+        return savedDogs;
+    }
+
+    @Transactional
     public DogOutput updateDog(Long id, UpdateDogInput input) {
         Dog existingDog = dogRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DOG_NOT_FOUND));
+        DogSnapshot before = DogSnapshot.of(existingDog);
 
         // Map non-null fields from input to entity
         dogMapper.updateEntityFromDto(input, existingDog);
+        resolveCharacteristics(List.of(existingDog));
 
         Dog updatedDog = dogRepository.save(existingDog);
+        publish(List.of(DogChangedEvent.updated(before, DogSnapshot.of(updatedDog))));
         return dogMapper.toOutputDto(updatedDog);
     }
 
+    /**
+     * Apply a status change to every non-deleted dog matching a filter, e.g. retiring
+     * a cohort, with one set-based UPDATE per batch of ids rather than one per dog.
+     * Runs in a single transaction, so either every matching dog is updated or none are.
+     * Each batch is locked until commit, so dogs changed concurrently are only updated if they still match.
+     * @param filter: filter parameters, as for getDogs. At least one is required.
+     * @param patch: status fields to set.
+     * @return number of dogs updated.
+     */
+    @Transactional
+    public long updateDogs(Map<String, String> filter, BulkUpdateDogInput patch) {
+        if (patch.getCurrentStatus() == null && patch.getLeavingDate() == null && patch.getLeavingReason() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At least one of currentStatus, leavingDate or leavingReason is required");
+        }
+        if (filter.keySet().stream().allMatch(NON_FILTER_PARAMS::contains)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one filter is required");
+        }
+        Specification<Dog> spec = dogFilter.toSpecification(filter);
+        int batchSize = properties.getBulkUpdate().getBatchSize();
+        LocalDateTime now = LocalDateTime.now();
+
+        long updated = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            // Seek by id, so dogs no longer matching after their update don't shift later batches
+            ids = dogRepository.findIds(spec.and(idGreaterThan(afterId)), batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.getLast();
+            // Lock the batch, then check it against the filter again, as dogs may have been changed
+            // since they were found. Only dogs still matching are updated, snapshotted as they are updated.
+            dogRepository.lockForUpdate(ids);
+            List<Long> matching = dogRepository.findIds(spec.and(idIn(ids)), batchSize);
+            if (matching.isEmpty()) {
+                continue;
+            }
+            List<DogSnapshot> before = dogRepository.fetchWithAssociations(matching).stream()
+                    .map(DogSnapshot::of)
+                    .toList();
+            updated += dogRepository.updateStatus(matching, patch.getCurrentStatus(), patch.getLeavingDate(),
+                    patch.getLeavingReason(), now);
+            publish(before.stream()
+                    .map(dog -> DogChangedEvent.updated(dog, dog.withStatus(patch.getCurrentStatus(), patch.getLeavingReason())))
+                    .toList());
+        } while (ids.size() == batchSize);
+
+        return updated;
+    }
+
+    @Transactional
     public void deleteDog(Long id) {
         Dog dog = dogRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DOG_NOT_FOUND));
+        if (dog.isDeleted()) {
+            return;
+        }
+        DogSnapshot before = DogSnapshot.of(dog);
         dog.setDeleted(true);
         dogRepository.save(dog);
+        publish(List.of(DogChangedEvent.deleted(before)));
+    }
+
+    private Versioned<DogOutput> loadDog(Long id) {
+        Dog dog = ReadYourWrites.onPrimary(() -> dogRepository.findByIdAndDeletedFalse(id))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, DOG_NOT_FOUND));
+        return new Versioned<>(dogMapper.toOutputDto(dog), dog.getVersion());
+    }
+
+    private <K> DogBatch<K> lookup(List<K> keys, Function<Set<K>, List<Dog>> fetch, Function<Dog, K> key) {
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        int maxSize = properties.getBatchLookup().getMaxSize();
+        if (distinct.isEmpty() || distinct.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + maxSize + " identifiers can be looked up at once");
+        }
+        Map<K, Dog> found = fetch.apply(distinct).stream()
+                .filter(dog -> !dog.isDeleted())
+                .collect(Collectors.toMap(key, dog -> dog));
+
+        Map<K, DogOutput> dogs = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K k : distinct) {
+            Dog dog = found.get(k);
+            if (dog == null) {
+                missing.add(k);
+            } else {
+                dogs.put(k, dogMapper.toOutputDto(dog));
+            }
+        }
+        return DogBatch.<K>builder()
+                .dogs(dogs)
+                .missing(missing)
+                .build();
+    }
+
+    // Record changes in the change log and statistics, within the caller's transaction, then notify listeners
+    private void publish(List<DogChangedEvent> events) {
+        dogChangeService.record(events);
+        dogStatisticsService.record(events);
+        events.forEach(eventPublisher::publishEvent);
     }
 
-    private Page<Dog> findDogsByField(String field, String value, Pageable pageable) {
-        return switch (field) {
-            case NAME -> dogRepository.findByDeletedFalseAndNameContainingIgnoreCase(value, pageable);
-            case BREED -> dogRepository.findByDeletedFalseAndBreedContainingIgnoreCase(value, pageable);
-            case SUPPLIER -> dogRepository.findByDeletedFalseAndSupplierContainingIgnoreCase(value, pageable);
-            default -> dogRepository.findByDeletedFalse(pageable);
-        };
+    // Replace characteristics mapped by name with their dictionary entries, resolved in a single pass
+    private void resolveCharacteristics(List<Dog> dogs) {
+        Set<String> names = dogs.stream()
+                .filter(dog -> dog.getKennellingCharacteristics() != null)
+                .flatMap(dog -> dog.getKennellingCharacteristics().stream())
+                .map(Characteristic::getName)
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, Characteristic> characteristics = characteristicService.findOrCreateCharacteristics(names);
+        for (Dog dog : dogs) {
+            if (dog.getKennellingCharacteristics() == null) continue;
+            Set<Characteristic> resolved = dog.getKennellingCharacteristics().stream()
+                    .map(characteristic -> characteristics.get(characteristic.getName()))
+                    .collect(Collectors.toSet());
+            dog.getKennellingCharacteristics().clear();
+            dog.getKennellingCharacteristics().addAll(resolved);
+        }
+    }
+
+    // Select the requested columns, then characteristics for the whole page in one query if requested
+    private List<Map<String, Object>> project(Specification<Dog> spec, Set<DogField> fields, Pageable pageable) {
+        List<String> attributes = fields.stream()
+                .filter(field -> field != DogField.KENNELLING_CHARACTERISTICS)
+                .map(DogField::getAttribute)
+                .toList();
+        List<Tuple> rows = dogRepository.findAttributes(spec, attributes, pageable);
+
+        Map<Long, Set<String>> characteristics = Map.of();
+        if (fields.contains(DogField.KENNELLING_CHARACTERISTICS) && !rows.isEmpty()) {
+            characteristics = dogRepository.findCharacteristicEntries(rows.stream().map(DogService::id).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(DogCharacteristicEntry::getId,
+                            Collectors.mapping(DogCharacteristicEntry::getCharacteristic, Collectors.toSet())));
+        }
+
+        List<Map<String, Object>> dogs = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> dog = new LinkedHashMap<>();
+            for (DogField field : fields) {
+                dog.put(field.getAttribute(), field == DogField.KENNELLING_CHARACTERISTICS
+                        ? characteristics.getOrDefault(id(row), Set.of())
+                        : row.get(field.getAttribute()));
+            }
+            dogs.add(dog);
+        }
+        return dogs;
+    }
+
+    private static Long id(Tuple row) {
+        return row.get("id", Long.class);
     }
 
     private Page<DogOutput> mapPage(Page<Dog> dogs) {
+        fetchKennellingCharacteristics(dogs);
+        return dogs.map(dogMapper::toOutputDto);
+    }
+
+    private Slice<DogOutput> mapSlice(Slice<Dog> dogs) {
+        fetchKennellingCharacteristics(dogs);
         return dogs.map(dogMapper::toOutputDto);
     }
 
+    // Load characteristics for the whole page in one query, rather than one per dog
+    private void fetchKennellingCharacteristics(Slice<Dog> dogs) {
+        if (dogs.hasContent()) {
+            dogRepository.fetchKennellingCharacteristics(dogs.map(Dog::getId).getContent());
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.dto.DogStatistics;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.model.DogStatistic;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogCount;
+import com.nathan.dogs.repository.DogRepository;
+import com.nathan.dogs.repository.DogStatisticRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static com.nathan.dogs.constant.DogConstants.BREED;
+import static com.nathan.dogs.constant.DogConstants.CURRENT_STATUS;
+import static com.nathan.dogs.constant.DogConstants.GENDER;
+import static com.nathan.dogs.constant.DogConstants.LEAVING_REASON;
+import static com.nathan.dogs.constant.DogConstants.SUPPLIER;
+
+/**
+ * Fleet statistics: counts of non-deleted dogs by status, gender, breed,
+ * supplier and leaving reason, held in a summary table (see DogStatistic) so reads don't scan the dog table.
+ * Counts are updated in the same transaction as each change, so every instance
+ * reads the same committed counts, whichever instance made the change.
+ * Counted from the dog table on first startup, while the table is empty.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogStatisticsService {
+
+    static final String NONE = "NONE";
+
+    private static final Map<String, Function<DogSnapshot, Object>> FIELDS = Map.of(
+            CURRENT_STATUS, DogSnapshot::getCurrentStatus,
+            GENDER, DogSnapshot::getGender,
+            BREED, DogSnapshot::getBreed,
+            SUPPLIER, DogSnapshot::getSupplier,
+            LEAVING_REASON, DogSnapshot::getLeavingReason
+    );
+
+    private final DogRepository dogRepository;
+    private final DogStatisticRepository dogStatisticRepository;
+    private final TableVersionService tableVersionService;
+
+    /**
+     * @return counts of non-deleted dogs, as of the last committed change.
+     */
+    @Transactional(readOnly = true)
+    public DogStatistics getStatistics() {
+        Map<String, Map<String, Long>> counts = empty();
+        dogStatisticRepository.findAll().stream()
+                // Counts that fell to zero are kept, but not reported, as they wouldn't be by a recount
+                .filter(statistic -> statistic.getDogs() != 0 && counts.containsKey(statistic.getField()))
+                .forEach(statistic -> counts.get(statistic.getField()).put(statistic.getCategory(), statistic.getDogs()));
+        return DogStatistics.builder()
+                // Every dog has a status, so the status counts sum to the total
+                .total(counts.get(CURRENT_STATUS).values().stream().mapToLong(Long::longValue).sum())
+                .currentStatus(counts.get(CURRENT_STATUS))
+                .gender(counts.get(GENDER))
+                .breed(counts.get(BREED))
+                .supplier(counts.get(SUPPLIER))
+                .leavingReason(counts.get(LEAVING_REASON))
+                .build();
+    }
+
+    /**
+     * Count the dog table into the summary table, if it is empty, e.g. on first startup.
+     * Serialised with writers on the dog table's version row, so no change is counted twice or missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        tableVersionService.lock(TableVersion.DOG);
+        if (dogStatisticRepository.count() > 0) {
+            return;
+        }
+        List<DogStatistic> statistics = new ArrayList<>();
+        recount().forEach((field, values) -> values.forEach((category, dogs) ->
+                statistics.add(new DogStatistic(field, category, dogs))));
+        dogStatisticRepository.saveAll(statistics);
+        log.info("Statistics counted for {} categories", statistics.size());
+    }
+
+    /**
+     * Apply changes to the counts, within the caller's transaction, so they commit or roll back with the changes.
+     * Changes are summed first, so a bulk change updates each category's count once.
+     * @param events: changes, in the order they were made.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<DogChangedEvent> events) {
+        Map<String, Map<String, Long>> deltas = empty();
+        for (DogChangedEvent event : events) {
+            if (event.getBefore() != null && !event.getBefore().isDeleted()) {
+                add(deltas, event.getBefore(), -1);
+            }
+            if (event.getAfter() != null && !event.getAfter().isDeleted()) {
+                add(deltas, event.getAfter(), 1);
+            }
+        }
+        if (deltas.values().stream().allMatch(Map::isEmpty)) {
+            return;
+        }
+        // Already held by the change log's version bump; taken here too, so inserting a new category can't race
+        tableVersionService.lock(TableVersion.DOG);
+        deltas.forEach((field, values) -> values.forEach((category, delta) -> {
+            if (dogStatisticRepository.increment(field, category, delta) == 0) {
+                dogStatisticRepository.save(new DogStatistic(field, category, delta));
+            }
+        }));
+    }
+
+    private static void add(Map<String, Map<String, Long>> deltas, DogSnapshot dog, long delta) {
+        // Changes that cancel out, e.g. an update that keeps the breed, aren't written
+        FIELDS.forEach((field, getter) -> deltas.get(field)
+                .merge(category(getter.apply(dog)), delta, (count, change) -> count + change == 0 ? null : count + change));
+    }
+
+    private Map<String, Map<String, Long>> recount() {
+        Map<String, Map<String, Long>> recount = new HashMap<>();
+        recount.put(CURRENT_STATUS, toCounts(dogRepository.countByCurrentStatus()));
+        recount.put(GENDER, toCounts(dogRepository.countByGender()));
+        recount.put(BREED, toCounts(dogRepository.countByBreed()));
+        recount.put(SUPPLIER, toCounts(dogRepository.countBySupplier()));
+        recount.put(LEAVING_REASON, toCounts(dogRepository.countByLeavingReason()));
+        return recount;
+    }
+
+    private static Map<String, Long> toCounts(List<DogCount> dogCounts) {
+        Map<String, Long> counts = new HashMap<>();
+        dogCounts.forEach(count -> counts.merge(category(count.getCategory()), count.getDogs(), Long::sum));
+        return counts;
+    }
+
+    private static String category(Object value) {
+        return value == null ? NONE : value.toString();
+    }
+
+    private static Map<String, Map<String, Long>> empty() {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        FIELDS.keySet().forEach(field -> counts.put(field, new TreeMap<>()));
+        return counts;
+    }
+}
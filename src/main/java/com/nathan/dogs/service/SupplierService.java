@@ -1,36 +1,122 @@
 package com.nathan.dogs.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nathan.dogs.config.DogsProperties;
 import com.nathan.dogs.model.Supplier;
 import com.nathan.dogs.repository.SupplierRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Service to handle Supplier entities, ensuring
  * each Dog entity has valid supplier.
  * No current requirement to expose as API.
+ * Suppliers are never changed once created, so resolved suppliers are cached
+ * by name, and only new or evicted names reach the database.
  */
 @Service
-@RequiredArgsConstructor
 public class SupplierService {
 
     private final SupplierRepository supplierRepository;
+    private final TransactionTemplate transaction;
+
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+    // Concurrent lookups of the same name share one load, so only one insert is attempted
+    private final AsyncLoadingCache<String, Supplier> suppliers;
+
+    public SupplierService(SupplierRepository supplierRepository,
+                           PlatformTransactionManager transactionManager,
+                           DogsProperties properties) {
+        this.supplierRepository = supplierRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.suppliers = Caffeine.newBuilder()
+                .maximumSize(properties.getSupplierCache().getMaxSize())
+                .executor(loaders)
+                .buildAsync(new SupplierLoader());
+    }
 
     /**
      * Query a Supplier entity, or create if not exists.
-     * Transactional to ensure consistency of suppliers created
-     * from Dog API.
+     * Suppliers are created in their own transaction, committed whether or
+     * not the calling transaction is, so concurrent creates can't conflict.
      * @param name: of supplier.
-     * @return Supplier entity.
+     * @return Supplier entity, detached.
      */
-    @Transactional
     public Supplier findOrCreateSupplier(String name) {
-        return supplierRepository.findByName(name)
-                .orElseGet(() -> {
+        return join(suppliers.get(name));
+    }
+
+    /**
+     * Resolve many suppliers at once, creating any that don't exist.
+     * Used for bulk requests, to query suppliers once rather than per dog.
+     * @param names: distinct supplier names.
+     * @return Supplier entities, detached, keyed by name.
+     */
+    public Map<String, Supplier> findOrCreateSuppliers(Collection<String> names) {
+        return join(suppliers.getAll(names));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loaders.shutdownNow();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private class SupplierLoader implements CacheLoader<String, Supplier> {
+
+        @Override
+        public Supplier load(String name) {
+            return transaction.execute(status -> supplierRepository.findByName(name))
+                    .orElseGet(() -> create(name));
+        }
+
+        @Override
+        public Map<String, Supplier> loadAll(Set<? extends String> names) {
+            Map<String, Supplier> found = new HashMap<>();
+            transaction.executeWithoutResult(status -> supplierRepository.findByNameIn(Set.copyOf(names))
+                    .forEach(supplier -> found.put(supplier.getName(), supplier)));
+            for (String name : names) {
+                found.computeIfAbsent(name, this::create);
+            }
+            return found;
+        }
+
+        private Supplier create(String name) {
+            try {
+                return transaction.execute(status -> {
                     Supplier supplier = new Supplier();
                     supplier.setName(name);
-                    return supplierRepository.save(supplier);
+                    return supplierRepository.saveAndFlush(supplier);
                 });
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently, e.g. by another instance, so use theirs
+                return transaction.execute(status -> supplierRepository.findByName(name))
+                        .orElseThrow(() -> e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
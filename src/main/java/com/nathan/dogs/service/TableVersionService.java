@@ -0,0 +1,136 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.TableVersionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service to maintain per-table change counters (see TableVersion).
+ * Writers bump the counter within their own transaction, so the version
+ * read by a request always reflects every change committed before it.
+ * The counter row is locked until commit, so writes to a table are
+ * serialised on it; reads are unaffected.
+ * The latest version seen committed, by this instance's writes and reads,
+ * is also held in memory, for callers that can't afford a query (see latest).
+ */
+@Service
+public class TableVersionService {
+
+    private final TableVersionRepository tableVersionRepository;
+    private final TransactionTemplate seeding;
+
+    // Highest version of each table seen committed
+    private final Map<String, Long> seen = new ConcurrentHashMap<>();
+
+    public TableVersionService(TableVersionRepository tableVersionRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.tableVersionRepository = tableVersionRepository;
+        this.seeding = new TransactionTemplate(transactionManager);
+        // Committed whether or not the caller's transaction is, as for suppliers
+        this.seeding.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Record changes to a table, within the caller's transaction.
+     * Always an atomic increment of an existing row, so concurrent writers get distinct versions.
+     * @param table: table name, e.g. TableVersion.DOG.
+     * @param changes: number of rows changed.
+     * @return the table's new version.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long bump(String table, long changes) {
+        if (tableVersionRepository.increment(table, changes) == 0) {
+            // Not seeded yet, e.g. written to before the application was ready
+            seed(table);
+            tableVersionRepository.increment(table, changes);
+        }
+        long version = tableVersionRepository.findVersion(table).orElseThrow();
+        afterCommit(() -> see(table, version));
+        return version;
+    }
+
+    /**
+     * Lock a table's version row until the caller's transaction ends, without changing it.
+     * Serialises writers that must check for a row and insert it if absent, e.g. new characteristics.
+     * @param table: table name, e.g. TableVersion.CHARACTERISTIC.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(String table) {
+        if (tableVersionRepository.lockVersion(table).isEmpty()) {
+            seed(table);
+            tableVersionRepository.lockVersion(table).orElseThrow();
+        }
+    }
+
+    /**
+     * @param table: table name, e.g. TableVersion.DOG.
+     * @return the table's committed version, 0 if never changed.
+     */
+    @Transactional(readOnly = true)
+    public long current(String table) {
+        long version = tableVersionRepository.findVersion(table).orElse(0L);
+        see(table, version);
+        return version;
+    }
+
+    /**
+     * The table's latest version seen by this instance, without a query once one has been seen:
+     * at least that of every change it has committed, and every version read by current.
+     * Changes committed by other instances are only reflected once read.
+     * @param table: table name, e.g. TableVersion.DOG.
+     * @return the table's latest version seen.
+     */
+    public long latest(String table) {
+        Long version = seen.get(table);
+        return version != null ? version : current(table);
+    }
+
+    // Create every table's version row up front, so bumps never have to
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        TableVersion.TABLES.forEach(this::seed);
+    }
+
+    // Insert the table's version row at 0 if absent. A concurrent insert, e.g. by another instance, wins.
+    private void seed(String table) {
+        try {
+            seeding.executeWithoutResult(status -> {
+                if (!tableVersionRepository.existsById(table)) {
+                    tableVersionRepository.saveAndFlush(new TableVersion(table, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Already created
+        }
+    }
+
+    private void see(String table, long version) {
+        seen.merge(table, version, Math::max);
+    }
+
+    // Versions bumped by a transaction that rolls back were never committed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,15 +1,40 @@
 package com.nathan.dogs.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.ArchivedDogOutput;
+import com.nathan.dogs.dto.BulkUpdateDogInput;
 import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogBatch;
+import com.nathan.dogs.dto.DogChangeOutput;
+import com.nathan.dogs.dto.DogChanges;
 import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.DogSlice;
+import com.nathan.dogs.dto.DogStatistics;
+import com.nathan.dogs.dto.ImportReport;
 import com.nathan.dogs.dto.UpdateDogInput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.exception.BulkValidationException;
 import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.model.ImportStatus;
+import com.nathan.dogs.service.DogArchiveService;
+import com.nathan.dogs.service.DogChangeService;
+import com.nathan.dogs.service.DogChangeStream;
+import com.nathan.dogs.service.DogExportService;
+import com.nathan.dogs.service.DogImportService;
 import com.nathan.dogs.service.DogService;
+import com.nathan.dogs.service.DogStatisticsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -17,15 +42,26 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DogController.class)
+// Metrics and application properties aren't configured in web slices,
+// but RequestMetricsFilter and ConcurrencyLimitConfig are included
+@Import(SimpleMeterRegistry.class)
+@EnableConfigurationProperties(DogsProperties.class)
 class DogControllerIntegrationTest {
 
     private static final String DOG_NAME = "Rocky";
@@ -41,6 +77,24 @@ class DogControllerIntegrationTest {
     @MockitoBean
     private DogService dogService;
 
+    @MockitoBean
+    private DogExportService dogExportService;
+
+    @MockitoBean
+    private DogImportService dogImportService;
+
+    @MockitoBean
+    private DogStatisticsService dogStatisticsService;
+
+    @MockitoBean
+    private DogArchiveService dogArchiveService;
+
+    @MockitoBean
+    private DogChangeService dogChangeService;
+
+    @MockitoBean
+    private DogChangeStream dogChangeStream;
+
     @Test
     void createDog_ReturnsCreatedDog() throws Exception {
         CreateDogInput input = CreateDogInput.builder()
@@ -77,6 +131,58 @@ class DogControllerIntegrationTest {
                 .andExpect(jsonPath("$.errors").exists());
     }
 
+    @Test
+    void updateDogs_ReturnsUpdatedCount() throws Exception {
+        BulkUpdateDogInput input = BulkUpdateDogInput.builder()
+                .currentStatus(CurrentStatus.LEFT)
+                .build();
+
+        Mockito.when(dogService.updateDogs(eq(Map.of("supplier", SUPPLIER)), any(BulkUpdateDogInput.class)))
+                .thenReturn(3L);
+
+        mockMvc.perform(patch("/api/dogs/dogs")
+                        .param("supplier", SUPPLIER)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3));
+    }
+
+    @Test
+    void createDogs_ReturnsCreatedDogs() throws Exception {
+        CreateDogInput input = CreateDogInput.builder()
+                .name(DOG_NAME)
+                .breed(DOG_BREED)
+                .supplier(SUPPLIER)
+                .currentStatus(CurrentStatus.IN_SERVICE)
+                .build();
+        DogOutput dogOutput = DogOutput.builder()
+                .name(DOG_NAME)
+                .breed(DOG_BREED)
+                .build();
+
+        Mockito.when(dogService.createDogs(anyList())).thenReturn(List.of(dogOutput, dogOutput));
+
+        mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(input, input))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value(DOG_NAME));
+    }
+
+    @Test
+    void createDogs_InvalidInput_ReturnsErrorsPerDog() throws Exception {
+        Mockito.when(dogService.createDogs(anyList()))
+                .thenThrow(new BulkValidationException(Map.of("[1].name", "must not be blank")));
+
+        mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}, {}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['[1].name']").value("must not be blank"));
+    }
+
     @Test
     void getAllDogs_ReturnsPagedDogs() throws Exception {
         DogOutput dogOutput = DogOutput.builder()
@@ -85,7 +191,7 @@ class DogControllerIntegrationTest {
                 .build();
         Page<DogOutput> page = new PageImpl<>(Collections.singletonList(dogOutput));
 
-        Mockito.when(dogService.getDogs(anyMap(), any(Pageable.class))).thenReturn(page);
+        Mockito.when(dogService.getDogs(anyMap(), any(Pageable.class))).thenReturn(new Versioned<>(page, 1L));
 
         mockMvc.perform(get("/api/dogs/dogs")
                         .param("name", DOG_NAME)
@@ -94,19 +200,296 @@ class DogControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name").value(DOG_NAME));
     }
 
+    @Test
+    void getAllDogs_WithFields_ReturnsOnlyThoseFields() throws Exception {
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(Map.of("name", DOG_NAME)));
+        Mockito.when(dogService.getDogFields(anyMap(), eq("name"), any(Pageable.class)))
+                .thenReturn(new Versioned<>(page, 1L));
+
+        mockMvc.perform(get("/api/dogs/dogs").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(DOG_NAME))
+                .andExpect(jsonPath("$.content[0].breed").doesNotExist());
+
+        Mockito.verify(dogService, Mockito.never()).getDogs(anyMap(), any(Pageable.class));
+    }
+
+    @Test
+    void getAllDogs_WithCursorAndFields_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs").param("cursor", "").param("fields", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllDogs_WithCursorAndSort_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs").param("cursor", "").param("sort", "name,desc"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(dogService);
+    }
+
+    @Test
+    void getAllDogs_AcceptCbor_ReturnsCbor() throws Exception {
+        DogOutput dogOutput = DogOutput.builder()
+                .name(DOG_NAME)
+                .build();
+        Mockito.when(dogService.getDogs(anyMap(), any(Pageable.class)))
+                .thenReturn(new Versioned<>(new PageImpl<>(Collections.singletonList(dogOutput)), 1L));
+
+        byte[] body = mockMvc.perform(get("/api/dogs/dogs")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(DOG_NAME, page.get("content").get(0).get("name").asText());
+    }
+
+    @Test
+    void getAllDogs_Unchanged_ReturnsNotModified() throws Exception {
+        Mockito.when(dogService.getListingVersion()).thenReturn(7L);
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .param("name", DOG_NAME)
+                        .header("If-None-Match", "\"dogs-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"dogs-7\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(dogService, Mockito.never()).getDogs(anyMap(), any(Pageable.class));
+    }
+
+    @Test
+    void getAllDogs_Changed_ReturnsDogsWithETag() throws Exception {
+        Mockito.when(dogService.getListingVersion()).thenReturn(8L);
+        Mockito.when(dogService.getDogs(anyMap(), any(Pageable.class)))
+                .thenReturn(new Versioned<>(new PageImpl<>(List.of()), 8L));
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .header("If-None-Match", "\"dogs-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"dogs-8\""));
+    }
+
+    @Test
+    void getAllDogs_ListingReadAtOlderVersion_TaggedWithItsVersion() throws Exception {
+        // e.g. the listing's transaction read from a replica behind the one If-None-Match was checked on
+        Mockito.when(dogService.getListingVersion()).thenReturn(8L);
+        Mockito.when(dogService.getDogs(anyMap(), any(Pageable.class)))
+                .thenReturn(new Versioned<>(new PageImpl<>(List.of()), 7L));
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .header("If-None-Match", "\"dogs-6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "W/\"dogs-7\""));
+    }
+
+    @Test
+    void getAllDogs_WithCursor_ReturnsSlice() throws Exception {
+        DogOutput dogOutput = DogOutput.builder()
+                .name(DOG_NAME)
+                .breed(DOG_BREED)
+                .build();
+        DogSlice slice = DogSlice.builder()
+                .content(List.of(dogOutput))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next")
+                .build();
+
+        Mockito.when(dogService.getDogsAfter(anyMap(), eq(""), eq(1))).thenReturn(new Versioned<>(slice, 1L));
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(DOG_NAME))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getStatistics_ReturnsCounts() throws Exception {
+        DogStatistics statistics = DogStatistics.builder()
+                .total(3)
+                .currentStatus(Map.of("IN_SERVICE", 3L))
+                .build();
+        Mockito.when(dogStatisticsService.getStatistics()).thenReturn(statistics);
+
+        mockMvc.perform(get("/api/dogs/dogs/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.currentStatus.IN_SERVICE").value(3));
+    }
+
+    @Test
+    void getArchivedDog_ReturnsArchivedDog() throws Exception {
+        ArchivedDogOutput archived = ArchivedDogOutput.builder()
+                .id(1L)
+                .name(DOG_NAME)
+                .build();
+        Mockito.when(dogArchiveService.getArchivedDog(1L)).thenReturn(archived);
+
+        mockMvc.perform(get("/api/dogs/dogs/archive/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value(DOG_NAME));
+    }
+
+    @Test
+    void getDogsByIds_ReturnsDogsKeyedById() throws Exception {
+        DogOutput dog = DogOutput.builder()
+                .name(DOG_NAME)
+                .build();
+        DogBatch<Long> batch = DogBatch.<Long>builder()
+                .dogs(Map.of(1L, dog))
+                .missing(List.of(2L))
+                .build();
+        Mockito.when(dogService.getDogsByIds(List.of(1L, 2L))).thenReturn(batch);
+
+        mockMvc.perform(get("/api/dogs/dogs/batch").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dogs['1'].name").value(DOG_NAME))
+                .andExpect(jsonPath("$.missing[0]").value(2));
+    }
+
+    @Test
+    void getChanges_ReturnsChangesSinceSequence() throws Exception {
+        DogChanges changes = DogChanges.builder()
+                .changes(List.of(DogChangeOutput.builder()
+                        .seq(11)
+                        .dogId(1L)
+                        .type(DogChangedEvent.Type.DELETED)
+                        .build()))
+                .lastSeq(11)
+                .build();
+        Mockito.when(dogChangeService.getChanges(10L, 50)).thenReturn(changes);
+
+        mockMvc.perform(get("/api/dogs/dogs/changes").param("since", "10").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.lastSeq").value(11))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void exportDogs_StreamsCsv() throws Exception {
+        Mockito.when(dogExportService.export(eq(DogFileFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("id,name\r\n1,Rocky\r\n".getBytes());
+            return 1L;
+        });
+
+        mockMvc.perform(get("/api/dogs/dogs/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=dogs.csv"))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,name\r\n1,Rocky\r\n"));
+    }
+
+    @Test
+    void exportDogs_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importDogs_ReturnsReport() throws Exception {
+        ImportReport report = ImportReport.builder()
+                .jobId(1L)
+                .status(ImportStatus.COMPLETED)
+                .rowsProcessed(2)
+                .rowsImported(1)
+                .rowsRejected(1)
+                .rejections(List.of(ImportReport.Rejection.builder().row(2).errors("name: must not be blank").build()))
+                .build();
+        Mockito.when(dogImportService.startImport(eq(DogFileFormat.CSV), eq(100), any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/dogs/dogs/import")
+                        .param("format", "csv")
+                        .param("chunkSize", "100")
+                        .contentType("text/csv")
+                        .content("name,breed\r\nRocky,Labrador\r\n,Labrador\r\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rejections[0].row").value(2));
+    }
+
+    @Test
+    void importDogs_Failed_ReturnsServerError() throws Exception {
+        ImportReport report = ImportReport.builder()
+                .jobId(1L)
+                .status(ImportStatus.FAILED)
+                .failure("Connection lost")
+                .rejections(List.of())
+                .build();
+        Mockito.when(dogImportService.startImport(eq(DogFileFormat.NDJSON), isNull(), any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/dogs/dogs/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}\n"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.jobId").value(1));
+    }
+
     @Test
     void getDogById_ReturnsDog() throws Exception {
         DogOutput dogOutput = DogOutput.builder()
                 .name(DOG_NAME)
                 .breed(DOG_BREED)
                 .build();
-        Mockito.when(dogService.getDogById(1L)).thenReturn(dogOutput);
+        Mockito.when(dogService.getDogVersion(1L)).thenReturn(2L);
+        Mockito.when(dogService.getDogById(1L)).thenReturn(new Versioned<>(dogOutput, 2L));
 
         mockMvc.perform(get("/api/dogs/dogs/1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"dog-1-2\""))
                 .andExpect(jsonPath("$.name").value(DOG_NAME))
                 .andExpect(jsonPath("$.breed").value(DOG_BREED));
+
+        Mockito.verify(dogService, Mockito.never()).reloadDogById(anyLong());
+    }
+
+    @Test
+    void getDogById_CachedDogOlder_ReloadsAndTagsWithItsVersion() throws Exception {
+        DogOutput stale = DogOutput.builder().name("Old name").build();
+        DogOutput current = DogOutput.builder().name(DOG_NAME).build();
+        Mockito.when(dogService.getDogVersion(1L)).thenReturn(3L);
+        Mockito.when(dogService.getDogById(1L)).thenReturn(new Versioned<>(stale, 2L));
+        Mockito.when(dogService.reloadDogById(1L)).thenReturn(new Versioned<>(current, 3L));
+
+        mockMvc.perform(get("/api/dogs/dogs/1")
+                        .header("If-None-Match", "W/\"dog-1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"dog-1-3\""))
+                .andExpect(jsonPath("$.name").value(DOG_NAME));
+    }
+
+    @Test
+    void getDogById_CachedDogNewer_TaggedOnlyWithItsVersion() throws Exception {
+        // e.g. the dog's version was read from a replica behind the primary the cached dog was loaded from
+        Mockito.when(dogService.getDogVersion(1L)).thenReturn(2L);
+        Mockito.when(dogService.getDogById(1L)).thenReturn(new Versioned<>(DogOutput.builder().name(DOG_NAME).build(), 3L));
+
+        mockMvc.perform(get("/api/dogs/dogs/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "W/\"dog-1-3\""));
+
+        Mockito.verify(dogService, Mockito.never()).reloadDogById(anyLong());
+    }
+
+    @Test
+    void getDogById_Unchanged_ReturnsNotModified() throws Exception {
+        Mockito.when(dogService.getDogVersion(1L)).thenReturn(2L);
+
+        mockMvc.perform(get("/api/dogs/dogs/1")
+                        .header("If-None-Match", "W/\"dog-1-2\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(dogService, Mockito.never()).getDogById(anyLong());
     }
 
     @Test
@@ -0,0 +1,70 @@
+package com.nathan.dogs.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesFilterTest {
+
+    private static final long NOW = 1_000_000;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+    @Test
+    void doFilter_Write_SetsCookieAndPinsRequest() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean pinned = pinned(new MockHttpServletRequest("POST", "/api/dogs/dogs"), response);
+
+        // Then
+        assertTrue(pinned);
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(String.valueOf(NOW + 5000), cookie.getValue());
+        assertFalse(ReadYourWrites.isPinned());
+    }
+
+    @Test
+    void doFilter_ReadWithinWindow_PinsRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dogs/dogs");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, String.valueOf(NOW + 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertTrue(pinned(request, response));
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void doFilter_ReadAfterWindow_DoesNotPinRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dogs/dogs");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, String.valueOf(NOW)));
+
+        // When & Then
+        assertFalse(pinned(request, new MockHttpServletResponse()));
+    }
+
+    private boolean pinned(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+        return pinned.get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.nathan.dogs.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Two H2 databases stand in for the primary and a replica, each recording its own name
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA = "replica-0";
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() {
+        // Given
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(REPLICA, replica));
+
+        // When & Then
+        assertEquals("replica", source(routing, true));
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() {
+        // Given
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(REPLICA, replica));
+
+        // When & Then
+        assertEquals("primary", source(routing, false));
+    }
+
+    @Test
+    void readOnlyTransaction_UsesPrimary_WhenPinnedAfterWrite() {
+        // Given
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(REPLICA, replica));
+        ReadYourWrites.pin();
+
+        // When & Then
+        assertEquals("primary", source(routing, true));
+    }
+
+    @Test
+    void readOnlyTransaction_UsesPrimary_WhenReadOnPrimary() {
+        // Given
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(REPLICA, replica));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(true);
+
+        // When
+        String source = transaction.execute(status -> ReadYourWrites.onPrimary(() ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM source", String.class)));
+
+        // Then
+        assertEquals("primary", source);
+        assertFalse(ReadYourWrites.isPinned());
+    }
+
+    @Test
+    void readOnlyTransaction_FallsBackToPrimary_WhenReplicaDown() {
+        // Given
+        DataSource down = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/down");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(REPLICA, down));
+
+        // When
+        String source = source(routing, true);
+        routing.checkReplicas();
+
+        // Then
+        assertEquals("primary", source);
+        assertFalse(routing.isHealthy(REPLICA));
+    }
+
+    // Name of the database a transaction read from
+    private static String source(ReplicaRoutingDataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM source", String.class));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS source (name VARCHAR(20))");
+        jdbc.update("DELETE FROM source");
+        jdbc.update("INSERT INTO source VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package com.nathan.dogs.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_AtLimit_Rejects() {
+        // Given
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        // When & Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void release_Slow_BacksOffToMinLimit() {
+        // Given
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, THRESHOLD, 0.5);
+
+        // When
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        int backedOff = limiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+
+        // Then
+        assertEquals(4, backedOff);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_FastWhileBusy_GrowsToMaxLimit() {
+        // Given
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, THRESHOLD, 0.5);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST);
+            limiter.release(FAST);
+        }
+
+        // Then
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void release_FastWhileIdle_KeepsLimit() {
+        // Given
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, THRESHOLD, 0.5);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+
+        // Then
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_WithoutLatency_KeepsLimit() {
+        // Given
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+
+        // When
+        limiter.release();
+
+        // Then
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,150 @@
+package com.nathan.dogs.limit;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(properties(), meterRegistry);
+
+    @Test
+    void preHandle_ExpensiveAtLimit_ShedsWithRetryAfter() throws Exception {
+        // Given
+        HandlerMethod expensive = handler("expensive");
+
+        // When
+        boolean first = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), expensive);
+        ConcurrencyLimitExceededException rejected = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), expensive));
+
+        // Then
+        assertTrue(first);
+        assertEquals(429, rejected.getStatusCode().value());
+        assertEquals("2", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("dogs.concurrency.rejected").tag("bulkhead", "expensive").counter().count());
+    }
+
+    @Test
+    void preHandle_ExpensiveAtLimit_AdmitsCheap() throws Exception {
+        // Given
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("expensive"));
+
+        // When & Then
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("cheap")));
+        assertEquals(1, interceptor.getLimiter(Bulkhead.CHEAP).getInFlight());
+    }
+
+    @Test
+    void preHandle_Unlimited_Admits() throws Exception {
+        // Given
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("expensive"));
+
+        // When & Then
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("unlimited")));
+    }
+
+    @Test
+    void afterCompletion_ReleasesPermit() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("expensive"));
+
+        // When
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler("expensive"), null);
+
+        // Then
+        assertEquals(0, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("expensive")));
+    }
+
+    @Test
+    void preHandle_DispatchedAgain_DoesNotAcquireTwice() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("expensive"));
+
+        // When & Then
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler("expensive")));
+        assertEquals(1, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+    }
+
+    @Test
+    void preHandle_Deferred_AdmitsWithoutPermitUntilAcquired() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("expensive"));
+
+        // When
+        boolean admitted = interceptor.preHandle(request, new MockHttpServletResponse(), handler("deferred"));
+
+        // Then
+        assertTrue(admitted);
+        assertThrows(ConcurrencyLimitExceededException.class, DeferredPermit::acquire);
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler("deferred"), null);
+        assertEquals(1, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+    }
+
+    @Test
+    void afterCompletion_Deferred_ReleasesAcquiredPermit() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("deferred"));
+        DeferredPermit.acquire();
+        DeferredPermit.acquire();
+        assertEquals(1, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+
+        // When
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler("deferred"), null);
+
+        // Then
+        assertEquals(0, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+        DeferredPermit.acquire();
+        assertEquals(0, interceptor.getLimiter(Bulkhead.EXPENSIVE).getInFlight());
+    }
+
+    private static DogsProperties.ConcurrencyLimit properties() {
+        DogsProperties.ConcurrencyLimit properties = new DogsProperties.ConcurrencyLimit();
+        properties.getExpensive().setInitialLimit(1);
+        properties.getExpensive().setMinLimit(1);
+        properties.getExpensive().setRetryAfter(Duration.ofSeconds(2));
+        return properties;
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(method));
+    }
+
+    static class Endpoints {
+
+        @ConcurrencyLimited(Bulkhead.EXPENSIVE)
+        public void expensive() {
+        }
+
+        @ConcurrencyLimited(value = Bulkhead.EXPENSIVE, deferred = true)
+        public void deferred() {
+        }
+
+        @ConcurrencyLimited(Bulkhead.CHEAP)
+        public void cheap() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
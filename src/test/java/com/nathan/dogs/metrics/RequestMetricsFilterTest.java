@@ -0,0 +1,87 @@
+package com.nathan.dogs.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class RequestMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void doFilter_RecordsSqlAndListingMetrics() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dogs/dogs");
+        request.setParameter("name", "rock");
+        request.setParameter("birthDateFrom", "2020-01-01");
+        request.setParameter("birthDateTo", "2020-12-31");
+        request.setParameter("page", "2");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/dogs/dogs");
+            RequestSqlStats.record(1_000_000);
+            RequestSqlStats.record(2_000_000);
+        });
+
+        // Then
+        DistributionSummary statements = meterRegistry.get("dogs.request.sql.statements")
+                .tags("method", "GET", "uri", "/api/dogs/dogs").summary();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        Timer sqlTime = meterRegistry.get("dogs.request.sql.time").timer();
+        assertEquals(3, sqlTime.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertNotNull(meterRegistry.get("dogs.listing")
+                .tags("filters", "multiple", "pagination", "page", "fields", "all", "status", "200").timer());
+    }
+
+    @Test
+    void doFilter_DoesNotRecordSqlOutsideRequest() throws Exception {
+        // Given
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/dogs/dogs/1"), new MockHttpServletResponse(),
+                (req, res) -> {});
+
+        // When
+        RequestSqlStats.record(1_000_000);
+
+        // Then
+        assertEquals(0, meterRegistry.get("dogs.request.sql.statements").summary().totalAmount());
+    }
+
+    @Test
+    void filterTypes_IgnoresPaginationAndUnknownParams() {
+        assertEquals("none", RequestMetricsFilter.filterTypes(Map.of("page", new String[]{"1"})));
+        assertEquals("currentStatus", RequestMetricsFilter.filterTypes(Map.of(
+                "currentStatus", new String[]{"IN_SERVICE"},
+                "colour", new String[]{"black"},
+                "fields", new String[]{"name"})));
+    }
+
+    @Test
+    void filterTypes_MergesRangesAndCombinations() {
+        assertEquals("birthDate", RequestMetricsFilter.filterTypes(Map.of(
+                "birthDateFrom", new String[]{"2020-01-01"},
+                "birthDateTo", new String[]{"2020-12-31"})));
+        assertEquals("multiple", RequestMetricsFilter.filterTypes(Map.of(
+                "currentStatus", new String[]{"IN_SERVICE"},
+                "characteristic", new String[]{"Vocal"})));
+    }
+}
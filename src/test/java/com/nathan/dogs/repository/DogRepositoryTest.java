@@ -0,0 +1,267 @@
+package com.nathan.dogs.repository;
+
+import com.nathan.dogs.model.ArchivedDog;
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.LeavingReason;
+import com.nathan.dogs.model.Supplier;
+import com.nathan.dogs.service.CharacteristicIndex;
+import com.nathan.dogs.service.DogFilter;
+import com.nathan.dogs.service.DogSearchIndex;
+import jakarta.persistence.Tuple;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The embedded test database's connections auto-commit, unlike the application's pool,
+// so Hibernate must disable it for each test's transaction to be rolled back
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false"
+})
+class DogRepositoryTest {
+
+    private static final int DOG_COUNT = 50;
+    // page query, count query and characteristics query
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private ArchivedDogRepository archivedDogRepository;
+
+    private Statistics statistics;
+    // Search index isn't built here, so text filters use LIKE predicates
+    private DogFilter dogFilter;
+    private CharacteristicIndex characteristicIndex;
+
+    @BeforeEach
+    void setUp() {
+        characteristicIndex = new CharacteristicIndex(dogRepository);
+        dogFilter = new DogFilter(new DogSearchIndex(dogRepository), characteristicIndex);
+
+        List<Supplier> suppliers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Supplier" + i);
+            suppliers.add(entityManager.persist(supplier));
+        }
+        Characteristic calm = entityManager.persist(new Characteristic("calm"));
+        for (int i = 0; i < DOG_COUNT; i++) {
+            Dog dog = new Dog();
+            dog.setName("Dog" + i);
+            dog.setBreed(i % 2 == 0 ? "Labrador" : "Spaniel");
+            dog.setCurrentStatus(CurrentStatus.IN_SERVICE);
+            dog.setSupplier(suppliers.get(i % suppliers.size()));
+            dog.setKennellingCharacteristics(new HashSet<>(Set.of(calm, entityManager.persist(new Characteristic("trait" + i)))));
+            entityManager.persist(dog);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 40})
+    void findAll_LoadsPageInFixedNumberOfStatements(int pageSize) {
+        // When
+        Page<Dog> page = dogRepository.findAll(dogFilter.toSpecification(Map.of()), PageRequest.of(0, pageSize));
+        touchAssociations(page);
+
+        // Then
+        assertEquals(pageSize, page.getNumberOfElements());
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 40})
+    void findAll_WithSupplierFilter_LoadsPageInFixedNumberOfStatements(int pageSize) {
+        // When
+        Page<Dog> page = dogRepository.findAll(dogFilter.toSpecification(Map.of("supplier", "supplier")), PageRequest.of(0, pageSize));
+        touchAssociations(page);
+
+        // Then
+        assertEquals(pageSize, page.getNumberOfElements());
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_CombinesFilters() {
+        // Given
+        Map<String, String> filter = Map.of(
+                "breed", "LAB",
+                "supplier", "supplier1",
+                "currentStatus", "IN_SERVICE",
+                "characteristic", "calm");
+
+        // When
+        Page<Dog> page = dogRepository.findAll(dogFilter.toSpecification(filter), PageRequest.of(0, DOG_COUNT));
+
+        // Then
+        // Labradors are even-numbered, Supplier1 has every third dog from 1
+        long expected = IntStream.range(0, DOG_COUNT).filter(i -> i % 2 == 0 && i % 3 == 1).count();
+        assertEquals(expected, page.getTotalElements());
+        page.forEach(dog -> {
+            assertEquals("Labrador", dog.getBreed());
+            assertEquals("Supplier1", dog.getSupplier().getName());
+        });
+    }
+
+    @Test
+    void findAll_FiltersByCharacteristic() {
+        // When
+        Page<Dog> page = dogRepository.findAll(dogFilter.toSpecification(Map.of("characteristic", "calm,trait7")), PageRequest.of(0, DOG_COUNT));
+
+        // Then
+        assertEquals(1, page.getTotalElements());
+        assertEquals("Dog7", page.getContent().get(0).getName());
+    }
+
+    @Test
+    void findAttributes_SelectsOnlyRequestedColumns_WithoutLoadingDogs() {
+        // When
+        List<Tuple> rows = dogRepository.findAttributes(dogFilter.toSpecification(Map.of("breed", "spaniel")),
+                List.of("name", "currentStatus"), PageRequest.of(0, 3, Sort.by("id")));
+        List<DogCharacteristicEntry> characteristics = dogRepository.findCharacteristicEntries(
+                rows.stream().map(row -> row.get("id", Long.class)).toList());
+
+        // Then
+        assertEquals(List.of("Dog1", "Dog3", "Dog5"), rows.stream().map(row -> row.get("name")).toList());
+        assertEquals(CurrentStatus.IN_SERVICE, rows.getFirst().get("currentStatus"));
+        assertEquals(3, rows.getFirst().getElements().size());
+        assertEquals(6, characteristics.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findAll_FiltersByRequiredAndExcludedCharacteristics(boolean indexed) {
+        // Given
+        if (indexed) {
+            characteristicIndex.rebuild();
+        }
+        Map<String, String> filter = Map.of("characteristic", "calm", "withoutCharacteristic", "trait7,trait8");
+
+        // When
+        Page<Dog> page = dogRepository.findAll(dogFilter.toSpecification(filter), PageRequest.of(0, DOG_COUNT));
+
+        // Then
+        assertEquals(DOG_COUNT - 2, page.getTotalElements());
+        assertTrue(page.stream().noneMatch(dog -> Set.of("Dog7", "Dog8").contains(dog.getName())));
+    }
+
+    @Test
+    void updateStatus_UpdatesMatchingDogsInOneStatement() {
+        // Given
+        List<Long> ids = dogRepository.findIds(dogFilter.toSpecification(Map.of("breed", "spaniel")), DOG_COUNT);
+        Dog deleted = dogRepository.findById(ids.get(0)).orElseThrow();
+        deleted.setDeleted(true);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // When
+        int updated = dogRepository.updateStatus(ids, CurrentStatus.LEFT, null, LeavingReason.TRANSFERRED, now);
+
+        // Then
+        assertEquals(DOG_COUNT / 2 - 1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        Dog dog = dogRepository.findById(ids.get(1)).orElseThrow();
+        assertEquals(CurrentStatus.LEFT, dog.getCurrentStatus());
+        assertEquals(LeavingReason.TRANSFERRED, dog.getLeavingReason());
+        assertEquals(1L, dog.getVersion());
+        assertEquals(now, dog.getUpdatedAt());
+        assertEquals(CurrentStatus.IN_SERVICE, dogRepository.findById(ids.get(0)).orElseThrow().getCurrentStatus());
+    }
+
+    @Test
+    void lockForUpdate_LocksNonDeletedDogs() {
+        // Given
+        List<Long> ids = dogRepository.findIds(dogFilter.toSpecification(Map.of("breed", "spaniel")), 3);
+        dogRepository.findById(ids.get(0)).orElseThrow().setDeleted(true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Long> locked = dogRepository.lockForUpdate(ids);
+
+        // Then
+        assertEquals(Set.copyOf(ids.subList(1, 3)), Set.copyOf(locked));
+    }
+
+    @Test
+    void archive_MovesDeletedDogsAndCharacteristics() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = dogRepository.findIds(dogFilter.toSpecification(Map.of("breed", "spaniel")), 3);
+        // Deleted two days ago, bar the last, bypassing auditing
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Dog d SET d.deleted = true, d.updatedAt = CASE WHEN d.id = :recent THEN :now ELSE :old END WHERE d.id IN :ids")
+                .setParameter("recent", ids.getLast())
+                .setParameter("now", now)
+                .setParameter("old", now.minusDays(2))
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        // When
+        List<Long> archivable = dogRepository.findArchivableIds(now.minusDays(1), Limit.of(DOG_COUNT));
+        archivedDogRepository.copyDeletedDogs(archivable, now);
+        archivedDogRepository.copyKennellingCharacteristics(archivable);
+        dogRepository.deleteKennellingCharacteristics(archivable);
+        int removed = dogRepository.deleteArchived(archivable);
+        entityManager.clear();
+
+        // Then
+        assertEquals(ids.subList(0, 2), archivable);
+        assertEquals(2, removed);
+        assertEquals(DOG_COUNT - 2, dogRepository.count());
+        assertTrue(dogRepository.findById(ids.getLast()).isPresent());
+        ArchivedDog archived = archivedDogRepository.findWithAssociationsById(ids.getFirst()).orElseThrow();
+        assertEquals("Spaniel", archived.getBreed());
+        assertEquals("Supplier1", archived.getSupplier().getName());
+        assertEquals(2, archived.getKennellingCharacteristics().size());
+        assertTrue(archived.getKennellingCharacteristics().contains("calm"));
+    }
+
+    // Mirrors DogService: characteristics are loaded for the page, then every association is read
+    private void touchAssociations(Page<Dog> page) {
+        dogRepository.fetchKennellingCharacteristics(page.map(Dog::getId).getContent());
+        page.forEach(dog -> {
+            dog.getSupplier().getName();
+            dog.getKennellingCharacteristics().size();
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.repository.DogCharacteristicEntry;
+import com.nathan.dogs.repository.DogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CharacteristicIndexTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @InjectMocks
+    private CharacteristicIndex characteristicIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(dogRepository.streamIds()).thenReturn(Stream.empty());
+        when(dogRepository.streamCharacteristicEntries()).thenReturn(Stream.empty());
+        characteristicIndex.rebuild();
+
+        characteristicIndex.onDogChanged(DogChangedEvent.created(snapshot(1L, "child-safe", "kennel-alone")));
+        characteristicIndex.onDogChanged(DogChangedEvent.created(snapshot(2L, "child-safe", "kennel-alone", "reactive")));
+        characteristicIndex.onDogChanged(DogChangedEvent.created(snapshot(3L, "child-safe")));
+        characteristicIndex.onDogChanged(DogChangedEvent.created(snapshot(4L)));
+    }
+
+    @Test
+    void search_IntersectsRequired_AndRemovesExcluded() {
+        assertEquals(Optional.of(Set.of(1L, 2L)), characteristicIndex.search(List.of("child-safe", "kennel-alone"), List.of()));
+        assertEquals(Optional.of(Set.of(1L)), characteristicIndex.search(List.of("child-safe", "kennel-alone"), List.of("reactive")));
+        assertEquals(Optional.of(Set.of(1L, 3L, 4L)), characteristicIndex.search(List.of(), List.of("reactive")));
+    }
+
+    @Test
+    void search_ReturnsNoMatches_WhenCharacteristicUnknown() {
+        assertEquals(Optional.of(Set.of()), characteristicIndex.search(List.of("child-safe", "unknown"), List.of()));
+        assertEquals(Optional.of(Set.of(3L)), characteristicIndex.search(List.of("child-safe"), List.of("kennel-alone", "unknown")));
+    }
+
+    @Test
+    void search_ReturnsEmpty_WhenNotBuilt() {
+        assertTrue(new CharacteristicIndex(dogRepository).search(List.of("child-safe"), List.of()).isEmpty());
+    }
+
+    @Test
+    void onDogChanged_ReindexesUpdatedAndDeletedDogs() {
+        // When
+        characteristicIndex.onDogChanged(DogChangedEvent.updated(
+                snapshot(2L, "child-safe", "kennel-alone", "reactive"),
+                snapshot(2L, "child-safe", "kennel-alone")));
+        characteristicIndex.onDogChanged(DogChangedEvent.deleted(snapshot(1L, "child-safe", "kennel-alone")));
+
+        // Then
+        assertEquals(Optional.of(Set.of()), characteristicIndex.search(List.of("reactive"), List.of()));
+        assertEquals(Optional.of(Set.of(2L)), characteristicIndex.search(List.of("kennel-alone"), List.of()));
+        assertEquals(Optional.of(Set.of(2L, 3L, 4L)), characteristicIndex.search(List.of(), List.of()));
+    }
+
+    @Test
+    void refresh_RereadsChangedDogs_RemovingThoseNoLongerFound() {
+        // Given: dog 2 changed by another instance, and dog 3 deleted
+        when(dogRepository.findNotDeletedIds(List.of(2L, 3L))).thenReturn(List.of(2L));
+        when(dogRepository.findCharacteristicEntries(List.of(2L))).thenReturn(List.of(entry(2L, "calm")));
+
+        // When
+        characteristicIndex.refresh(List.of(2L, 3L));
+
+        // Then
+        assertEquals(Optional.of(Set.of()), characteristicIndex.search(List.of("reactive"), List.of()));
+        assertEquals(Optional.of(Set.of(2L)), characteristicIndex.search(List.of("calm"), List.of()));
+        assertEquals(Optional.of(Set.of(1L)), characteristicIndex.search(List.of("child-safe"), List.of()));
+        assertEquals(Optional.of(Set.of(1L, 2L, 4L)), characteristicIndex.search(List.of(), List.of()));
+    }
+
+    @Test
+    void rebuild_KeepsChangesAppliedWhileBuilding() {
+        // Given: dog 5 created and dog 1 deleted after the ids were read
+        when(dogRepository.streamIds()).thenReturn(Stream.of(1L, 2L));
+        when(dogRepository.streamCharacteristicEntries()).thenAnswer(invocation -> {
+            characteristicIndex.onDogChanged(DogChangedEvent.created(snapshot(5L, "calm")));
+            characteristicIndex.onDogChanged(DogChangedEvent.deleted(snapshot(1L, "child-safe")));
+            return Stream.of(entry(1L, "child-safe"));
+        });
+
+        // When
+        characteristicIndex.rebuild();
+
+        // Then
+        assertEquals(Optional.of(Set.of(2L, 5L)), characteristicIndex.search(List.of(), List.of()));
+        assertEquals(Optional.of(Set.of()), characteristicIndex.search(List.of("child-safe"), List.of()));
+        assertEquals(Optional.of(Set.of(5L)), characteristicIndex.search(List.of("calm"), List.of()));
+    }
+
+    private static DogCharacteristicEntry entry(Long id, String characteristic) {
+        return new DogCharacteristicEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCharacteristic() {
+                return characteristic;
+            }
+        };
+    }
+
+    private static DogSnapshot snapshot(Long id, String... characteristics) {
+        return new DogSnapshot(id, "Rocky", "Labrador", "Acme Kennels", CurrentStatus.IN_SERVICE, null, null,
+                Set.of(characteristics), false);
+    }
+}
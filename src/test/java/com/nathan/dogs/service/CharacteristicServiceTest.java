@@ -0,0 +1,88 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.CharacteristicRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CharacteristicServiceTest {
+
+    @Mock
+    private CharacteristicRepository characteristicRepository;
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @InjectMocks
+    private CharacteristicService characteristicService;
+
+    @Test
+    void findOrCreateCharacteristics_Existing_FoundWithoutLocking() {
+        // Given
+        Characteristic calm = new Characteristic("calm");
+        when(characteristicRepository.findByNameIn(List.of("calm"))).thenReturn(List.of(calm));
+
+        // When
+        Map<String, Characteristic> characteristics = characteristicService.findOrCreateCharacteristics(List.of("calm"));
+
+        // Then
+        assertSame(calm, characteristics.get("calm"));
+        verify(tableVersionService, never()).lock(anyString());
+        verify(characteristicRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void findOrCreateCharacteristics_Missing_CreatedUnderLockUnlessCreatedMeanwhile() {
+        // Given
+        Characteristic calm = new Characteristic("calm");
+        when(characteristicRepository.findByNameIn(List.of("calm", "reactive")))
+                .thenReturn(List.of(), List.of(calm));
+        when(characteristicRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Map<String, Characteristic> characteristics =
+                characteristicService.findOrCreateCharacteristics(List.of("calm", "reactive"));
+
+        // Then
+        assertSame(calm, characteristics.get("calm"));
+        assertEquals("reactive", characteristics.get("reactive").getName());
+        InOrder order = inOrder(characteristicRepository, tableVersionService);
+        order.verify(characteristicRepository).findByNameIn(List.of("calm", "reactive"));
+        order.verify(tableVersionService).lock(TableVersion.CHARACTERISTIC);
+        order.verify(characteristicRepository).findByNameIn(List.of("calm", "reactive"));
+        order.verify(characteristicRepository).saveAll(List.of(new Characteristic("reactive")));
+    }
+
+    @Test
+    void findOrCreateCharacteristics_Resolved_HeldInMemory() {
+        // Given
+        when(characteristicRepository.findByNameIn(List.of("calm"))).thenReturn(List.of(new Characteristic("calm")));
+        characteristicService.findOrCreateCharacteristics(List.of("calm"));
+
+        // When
+        characteristicService.findOrCreateCharacteristics(List.of("calm"));
+
+        // Then
+        verify(characteristicRepository).findByNameIn(List.of("calm"));
+        verifyNoMoreInteractions(characteristicRepository);
+    }
+}
@@ -0,0 +1,87 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.repository.ArchivedDogRepository;
+import com.nathan.dogs.repository.DogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogArchiveServiceTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private ArchivedDogRepository archivedDogRepository;
+
+    @Mock
+    private DogMapper dogMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private DogsProperties properties = new DogsProperties();
+
+    @InjectMocks
+    private DogArchiveService dogArchiveService;
+
+    @Test
+    void archive_MovesDeletedDogsInBatches() {
+        // Given
+        properties.getArchive().setBatchSize(2);
+        when(dogRepository.findArchivableIds(any(), any(Limit.class))).thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // When
+        long archived = dogArchiveService.archive();
+
+        // Then
+        assertEquals(3, archived);
+        verify(archivedDogRepository).copyDeletedDogs(eq(List.of(1L, 2L)), any());
+        verify(archivedDogRepository).copyKennellingCharacteristics(List.of(3L));
+        verify(dogRepository).deleteKennellingCharacteristics(List.of(1L, 2L));
+        verify(dogRepository).deleteArchived(List.of(3L));
+    }
+
+    @Test
+    void archive_DoesNothing_WhenNoDeletedDogs() {
+        // Given
+        when(dogRepository.findArchivableIds(any(), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        long archived = dogArchiveService.archive();
+
+        // Then
+        assertEquals(0, archived);
+        verify(archivedDogRepository, never()).copyDeletedDogs(any(), any());
+    }
+
+    @Test
+    void getArchivedDog_ThrowsException_WhenNotArchived() {
+        // Given
+        when(archivedDogRepository.findWithAssociationsById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogArchiveService.getArchivedDog(1L));
+    }
+}
@@ -0,0 +1,54 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Set;
+
+import static com.nathan.dogs.constant.DogConstants.DOGS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DogCacheEvictorTest {
+
+    private Cache cache;
+    private DogCacheEvictor dogCacheEvictor;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(DOGS_CACHE);
+        cache = cacheManager.getCache(DOGS_CACHE);
+        cache.put(1L, DogOutput.builder().name("Rocky").build());
+        cache.put(2L, DogOutput.builder().name("Rex").build());
+        dogCacheEvictor = new DogCacheEvictor(cacheManager);
+    }
+
+    @Test
+    void onDogChanged_Updated_EvictsOnlyThatDog() {
+        // When
+        dogCacheEvictor.onDogChanged(DogChangedEvent.updated(snapshot(1L, "Rocky"), snapshot(1L, "Rocky II")));
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+    }
+
+    @Test
+    void onDogChanged_Deleted_EvictsDog() {
+        // When
+        dogCacheEvictor.onDogChanged(DogChangedEvent.deleted(snapshot(2L, "Rex")));
+
+        // Then
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    private static DogSnapshot snapshot(Long id, String name) {
+        return new DogSnapshot(id, name, null, null, null, null, null, Set.of(), false);
+    }
+}
@@ -0,0 +1,232 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.DogChanges;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.DogChange;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogChangeRepository;
+import com.nathan.dogs.repository.DogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogChangeServiceTest {
+
+    @Mock
+    private DogChangeRepository dogChangeRepository;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @Mock
+    private DogMapper dogMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private DogsProperties properties = new DogsProperties();
+
+    @InjectMocks
+    private DogChangeService dogChangeService;
+
+    @Test
+    void record_NumbersChangesByTableVersion() {
+        // Given
+        when(tableVersionService.bump(TableVersion.DOG, 2)).thenReturn(12L);
+
+        // When
+        dogChangeService.record(List.of(
+                DogChangedEvent.created(snapshot(1L)),
+                DogChangedEvent.deleted(snapshot(2L))));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DogChange>> saved = ArgumentCaptor.forClass(List.class);
+        verify(dogChangeRepository).saveAll(saved.capture());
+        assertEquals(List.of(11L, 12L), saved.getValue().stream().map(DogChange::getSeq).toList());
+        assertEquals(List.of(DogChangedEvent.Type.CREATED, DogChangedEvent.Type.DELETED),
+                saved.getValue().stream().map(DogChange::getType).toList());
+    }
+
+    @Test
+    void record_DoesNothing_WhenNoChanges() {
+        // When
+        dogChangeService.record(List.of());
+
+        // Then
+        verifyNoInteractions(tableVersionService, dogChangeRepository);
+    }
+
+    @Test
+    void getChanges_ReturnsBatchWithCurrentDogs() {
+        // Given
+        Dog dog = new Dog();
+        dog.setId(1L);
+        DogOutput dogOutput = DogOutput.builder().name("Rocky").build();
+        when(dogChangeRepository.findBySeqGreaterThanOrderBySeq(eq(10L), any(Limit.class))).thenReturn(List.of(
+                change(11L, 1L, DogChangedEvent.Type.CREATED),
+                change(12L, 2L, DogChangedEvent.Type.DELETED),
+                change(13L, 1L, DogChangedEvent.Type.UPDATED)));
+        when(dogRepository.fetchWithAssociations(Set.of(1L))).thenReturn(List.of(dog));
+        when(dogMapper.toOutputDto(dog)).thenReturn(dogOutput);
+
+        // When
+        DogChanges changes = dogChangeService.getChanges(10L, 2);
+
+        // Then
+        assertEquals(2, changes.getChanges().size());
+        assertEquals(12L, changes.getLastSeq());
+        assertTrue(changes.isHasMore());
+        assertSame(dogOutput, changes.getChanges().get(0).getDog());
+        assertNull(changes.getChanges().get(1).getDog());
+    }
+
+    @Test
+    void getChanges_KeepsSequence_WhenNoChanges() {
+        // Given
+        when(dogChangeRepository.findBySeqGreaterThanOrderBySeq(eq(10L), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        DogChanges changes = dogChangeService.getChanges(10L, 2);
+
+        // Then
+        assertEquals(10L, changes.getLastSeq());
+        assertFalse(changes.isHasMore());
+        verifyNoInteractions(dogRepository);
+    }
+
+    @Test
+    void getChanges_SincePurged_ReturnsGone() {
+        // Given
+        when(dogChangeRepository.findBySeqGreaterThanOrderBySeq(eq(10L), any(Limit.class))).thenReturn(List.of(
+                change(15L, 1L, DogChangedEvent.Type.CREATED)));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> dogChangeService.getChanges(10L, 2));
+
+        // Then
+        assertEquals(HttpStatus.GONE, exception.getStatusCode());
+        verifyNoInteractions(dogRepository);
+    }
+
+    @Test
+    void getChangedDogs_ReturnsChangesWithoutLoadingDogs() {
+        // Given
+        List<DogChange> logged = List.of(change(11L, 1L, DogChangedEvent.Type.CREATED));
+        when(dogChangeRepository.findBySeqGreaterThanOrderBySeq(10L, Limit.of(2))).thenReturn(logged);
+
+        // When
+        List<DogChange> changes = dogChangeService.getChangedDogs(10L, 2);
+
+        // Then
+        assertEquals(logged, changes);
+        verifyNoInteractions(dogRepository);
+    }
+
+    @Test
+    void getChangedDogs_SincePurged_ReturnsGone() {
+        // Given
+        when(dogChangeRepository.findBySeqGreaterThanOrderBySeq(eq(10L), any(Limit.class))).thenReturn(List.of(
+                change(15L, 1L, DogChangedEvent.Type.CREATED)));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> dogChangeService.getChangedDogs(10L, 2));
+
+        // Then
+        assertEquals(HttpStatus.GONE, exception.getStatusCode());
+    }
+
+    @Test
+    void requireRetained_SincePurged_ReturnsGone() {
+        // Given
+        when(dogChangeRepository.findFirstSeq()).thenReturn(Optional.of(15L));
+
+        // When & Then
+        assertDoesNotThrow(() -> dogChangeService.requireRetained(14L));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> dogChangeService.requireRetained(13L));
+        assertEquals(HttpStatus.GONE, exception.getStatusCode());
+    }
+
+    @Test
+    void purge_DeletesChangesOlderThanRetentionInBatches() {
+        // Given
+        properties.getChanges().setPurgeBatchSize(30);
+        when(dogChangeRepository.findLastSeqBefore(any(LocalDateTime.class))).thenReturn(Optional.of(50L));
+        when(dogChangeRepository.findLastSeq()).thenReturn(Optional.of(60L));
+        when(dogChangeRepository.findFirstSeq()).thenReturn(Optional.of(1L), Optional.of(31L), Optional.of(51L));
+        when(dogChangeRepository.deleteUpTo(30L)).thenReturn(30);
+        when(dogChangeRepository.deleteUpTo(50L)).thenReturn(20);
+
+        // When
+        long purged = dogChangeService.purge();
+
+        // Then
+        assertEquals(50, purged);
+    }
+
+    @Test
+    void purge_KeepsNewestChange() {
+        // Given
+        when(dogChangeRepository.findLastSeqBefore(any(LocalDateTime.class))).thenReturn(Optional.of(60L));
+        when(dogChangeRepository.findLastSeq()).thenReturn(Optional.of(60L));
+        when(dogChangeRepository.findFirstSeq()).thenReturn(Optional.of(1L), Optional.of(60L));
+        when(dogChangeRepository.deleteUpTo(59L)).thenReturn(59);
+
+        // When
+        long purged = dogChangeService.purge();
+
+        // Then
+        assertEquals(59, purged);
+        verify(dogChangeRepository, never()).deleteUpTo(60L);
+    }
+
+    private static DogChange change(long seq, Long dogId, DogChangedEvent.Type type) {
+        return new DogChange(seq, dogId, type, LocalDateTime.now());
+    }
+
+    private static DogSnapshot snapshot(Long id) {
+        return new DogSnapshot(id, "Rocky", "Labrador", "Acme Kennels", CurrentStatus.IN_SERVICE, null, null,
+                Set.of(), false);
+    }
+}
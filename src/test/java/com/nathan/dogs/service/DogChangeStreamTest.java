@@ -0,0 +1,97 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.DogChangeOutput;
+import com.nathan.dogs.dto.DogChanges;
+import com.nathan.dogs.event.DogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogChangeStreamTest {
+
+    @Mock
+    private DogChangeService dogChangeService;
+
+    private DogChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new DogChangeStream(dogChangeService, new DogsProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void poll_ReadsOnceForEverySubscriber() {
+        // Given
+        when(dogChangeService.getLastSeq()).thenReturn(10L);
+        when(dogChangeService.getChanges(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            return since == 10L ? changes(11L) : changes();
+        });
+        stream.subscribe(10L);
+        stream.subscribe(10L);
+        verify(dogChangeService, timeout(1000)).getChanges(eq(10L), anyInt());
+
+        // When
+        stream.poll();
+
+        // Then
+        verify(dogChangeService, timeout(1000).atLeastOnce()).getChanges(eq(11L), anyInt());
+        verify(dogChangeService, after(200)).getChanges(eq(10L), anyInt());
+    }
+
+    @Test
+    void poll_NoSubscribers_DoesNotRead() {
+        // When
+        stream.poll();
+
+        // Then
+        verify(dogChangeService, after(200).never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void subscribe_SincePurged_ReturnsGone() {
+        // Given
+        doThrow(new ResponseStatusException(HttpStatus.GONE)).when(dogChangeService).requireRetained(5L);
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> stream.subscribe(5L));
+        stream.poll();
+        verify(dogChangeService, after(200).never()).getLastSeq();
+    }
+
+    private static DogChanges changes(long... seqs) {
+        List<DogChangeOutput> changes = Arrays.stream(seqs)
+                .mapToObj(seq -> DogChangeOutput.builder().seq(seq).dogId(1L).type(DogChangedEvent.Type.UPDATED).build())
+                .toList();
+        return DogChanges.builder()
+                .changes(changes)
+                .lastSeq(seqs.length == 0 ? 11L : seqs[seqs.length - 1])
+                .hasMore(false)
+                .build();
+    }
+}
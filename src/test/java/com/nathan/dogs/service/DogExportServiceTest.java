@@ -0,0 +1,122 @@
+package com.nathan.dogs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nathan.dogs.dto.DogExport;
+import com.nathan.dogs.mapper.DogCsvMapper;
+import com.nathan.dogs.mapper.DogMapper;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.Dog;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.repository.DogRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.nathan.dogs.constant.DogConstants.EXPORT_FETCH_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogExportServiceTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private DogMapper dogMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private DogCsvMapper dogCsvMapper = new DogCsvMapper();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private DogExportService dogExportService;
+
+    @Test
+    void export_WritesOneJsonLinePerDog_AndClearsEachChunk() throws Exception {
+        // Given
+        int dogCount = EXPORT_FETCH_SIZE * 2 + 1;
+        when(dogRepository.streamByDeletedFalse()).thenReturn(dogs(dogCount));
+        when(dogMapper.toExportDto(any(Dog.class))).thenAnswer(invocation -> export(invocation.getArgument(0)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long exported = dogExportService.export(DogFileFormat.NDJSON, output);
+
+        // Then
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(dogCount, exported);
+        assertEquals(dogCount, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":1,\"name\":\"Dog1\""));
+        // Characteristics are fetched, and the persistence context cleared, once per chunk
+        verify(dogRepository, times(3)).fetchKennellingCharacteristics(anyCollection());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void export_WritesCsvWithHeader_EscapingDelimiters() throws Exception {
+        // Given
+        when(dogRepository.streamByDeletedFalse()).thenReturn(dogs(1));
+        DogExport dog = DogExport.builder()
+                .id(1L)
+                .name("Rocky, Jr")
+                .breed("Labrador")
+                .supplier("The \"Best\" Kennels")
+                .currentStatus(CurrentStatus.IN_SERVICE)
+                .birthDate(LocalDate.of(2020, 1, 31))
+                .kennellingCharacteristics(new LinkedHashSet<>(List.of("reactive", "calm")))
+                .build();
+        when(dogMapper.toExportDto(any(Dog.class))).thenReturn(dog);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        dogExportService.export(DogFileFormat.CSV, output);
+
+        // Then
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(String.join(",", DogCsvMapper.COLUMNS), lines.get(0));
+        assertEquals("1,\"Rocky, Jr\",Labrador,\"The \"\"Best\"\" Kennels\",IN_SERVICE,,,2020-01-31,,,,calm|reactive", lines.get(1));
+    }
+
+    private static Stream<Dog> dogs(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            Dog dog = new Dog();
+            dog.setId(id);
+            dog.setName("Dog" + id);
+            return dog;
+        });
+    }
+
+    private static DogExport export(Dog dog) {
+        return DogExport.builder()
+                .id(dog.getId())
+                .name(dog.getName())
+                .build();
+    }
+}
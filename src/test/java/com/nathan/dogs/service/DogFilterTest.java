@@ -0,0 +1,99 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.Dog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogFilterTest {
+
+    @Mock
+    private DogSearchIndex dogSearchIndex;
+
+    @Mock
+    private CharacteristicIndex characteristicIndex;
+
+    @InjectMocks
+    private DogFilter dogFilter;
+
+    @Test
+    void toSpecification_IgnoresPaginationParameters() {
+        assertNotNull(dogFilter.toSpecification(Map.of("page", "1", "size", "20", "sort", "name,asc")));
+        verifyNoInteractions(dogSearchIndex);
+    }
+
+    @Test
+    void toSpecification_CombinesEveryFilter() {
+        // Given
+        when(dogSearchIndex.search("breed", "spaniel")).thenReturn(Optional.of(Set.of(1L)));
+        when(dogSearchIndex.search("supplier", "acme")).thenReturn(Optional.empty());
+        when(characteristicIndex.search(List.of("calm", "child-safe"), List.of())).thenReturn(Optional.empty());
+
+        // When
+        dogFilter.toSpecification(Map.of(
+                "breed", "spaniel",
+                "supplier", "acme",
+                "currentStatus", "in_service,retired",
+                "gender", "FEMALE",
+                "birthDateFrom", "2020-01-01",
+                "characteristic", "calm,child-safe"));
+
+        // Then
+        verify(dogSearchIndex).search("breed", "spaniel");
+        verify(dogSearchIndex).search("supplier", "acme");
+        verify(characteristicIndex).search(List.of("calm", "child-safe"), List.of());
+    }
+
+    @Test
+    void toSpecification_AnswersCharacteristicsFromIndex() {
+        // Given
+        when(characteristicIndex.search(List.of("calm"), List.of("reactive"))).thenReturn(Optional.of(Set.of(1L, 2L)));
+
+        // When
+        Specification<Dog> spec = dogFilter.toSpecification(Map.of("characteristic", "calm",
+                "withoutCharacteristic", "reactive"));
+
+        // Then
+        assertNotNull(spec);
+        verify(characteristicIndex).search(List.of("calm"), List.of("reactive"));
+    }
+
+    @Test
+    void toSpecification_RejectsUnknownFilter() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> dogFilter.toSpecification(Map.of("colour", "black")));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void toSpecification_RejectsInvalidEnum() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> dogFilter.toSpecification(Map.of("currentStatus", "ASLEEP")));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void toSpecification_RejectsInvalidDate() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> dogFilter.toSpecification(Map.of("leavingDateTo", "yesterday")));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+}
@@ -0,0 +1,179 @@
+package com.nathan.dogs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.ImportReport;
+import com.nathan.dogs.mapper.DogCsvMapper;
+import com.nathan.dogs.model.DogFileFormat;
+import com.nathan.dogs.model.ImportJob;
+import com.nathan.dogs.model.ImportRejection;
+import com.nathan.dogs.model.ImportStatus;
+import com.nathan.dogs.repository.DogRepository;
+import com.nathan.dogs.repository.ImportJobRepository;
+import com.nathan.dogs.repository.ImportRejectionRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogImportServiceTest {
+
+    private static final Long JOB_ID = 1L;
+
+    @Mock
+    private DogService dogService;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportRejectionRepository importRejectionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private DogCsvMapper dogCsvMapper = new DogCsvMapper();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Spy
+    private DogsProperties properties = new DogsProperties();
+
+    private DogImportService dogImportService;
+
+    private ImportJob job;
+    private final List<ImportRejection> rejections = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DogInputValidator dogInputValidator =
+                new DogInputValidator(Validation.buildDefaultValidatorFactory().getValidator(), dogRepository);
+        dogImportService = new DogImportService(dogService, dogInputValidator, dogCsvMapper, objectMapper,
+                importJobRepository, importRejectionRepository, transactionManager, properties);
+    }
+
+    @Test
+    void startImport_ImportsValidRows_AndRejectsInvalidRows() {
+        // Given
+        stubJobStore();
+        String ndjson = """
+                {"name":"Rocky","breed":"Labrador","supplier":"SupplierA","currentStatus":"IN_SERVICE"}
+                {"breed":"Labrador","supplier":"SupplierA","currentStatus":"IN_SERVICE"}
+                {"name":"Rex",
+                {"name":"Max","breed":"Spaniel","supplier":"SupplierB","currentStatus":"IN_TRAINING"}
+                """;
+
+        // When
+        ImportReport report = dogImportService.startImport(DogFileFormat.NDJSON, 2, input(ndjson));
+
+        // Then
+        assertEquals(ImportStatus.COMPLETED, report.getStatus());
+        assertEquals(4, report.getRowsProcessed());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(List.of(2L, 3L), report.getRejections().stream().map(ImportReport.Rejection::getRow).toList());
+        assertTrue(report.getRejections().getFirst().getErrors().startsWith("name: "));
+        // Only for rows passing validation, so invalid rows don't create suppliers
+        verify(dogService).resolveSuppliers(argThat(inputs -> names(inputs).equals(List.of("Rocky"))));
+        verify(dogService).resolveSuppliers(argThat(inputs -> names(inputs).equals(List.of("Max"))));
+    }
+
+    @Test
+    void resumeImport_SkipsRowsUpToCheckpoint() {
+        // Given
+        stubJobStore();
+        job.setFormat(DogFileFormat.CSV);
+        job.setChunkSize(10);
+        job.setStatus(ImportStatus.FAILED);
+        job.setRowsProcessed(2);
+        job.setRowsImported(2);
+        String csv = """
+                name,breed,supplier,currentStatus
+                Rocky,Labrador,SupplierA,IN_SERVICE
+                Rex,Labrador,SupplierA,IN_SERVICE
+                Max,Spaniel,SupplierB,IN_TRAINING
+                """;
+
+        // When
+        ImportReport report = dogImportService.resumeImport(JOB_ID, input(csv));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CreateDogInput>> saved = ArgumentCaptor.forClass(List.class);
+        verify(dogService).saveDogs(saved.capture(), anyMap());
+        assertEquals(List.of("Max"), names(saved.getValue()));
+        assertEquals(ImportStatus.COMPLETED, report.getStatus());
+        assertEquals(3, report.getRowsProcessed());
+        assertEquals(3, report.getRowsImported());
+    }
+
+    @Test
+    void resumeImport_ThrowsException_WhenCompleted() {
+        // Given
+        job = new ImportJob();
+        job.setStatus(ImportStatus.COMPLETED);
+        when(importJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogImportService.resumeImport(JOB_ID, input("")));
+    }
+
+    // Keep a single job in memory, as the repository would
+    private void stubJobStore() {
+        job = new ImportJob();
+        job.setId(JOB_ID);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+            ImportJob saved = invocation.getArgument(0);
+            saved.setId(JOB_ID);
+            job = saved;
+            return saved;
+        });
+        when(importJobRepository.findById(JOB_ID)).thenAnswer(invocation -> Optional.of(job));
+        when(importRejectionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            rejections.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(importRejectionRepository.findByJobIdOrderByRowNumber(anyLong(), any())).thenAnswer(invocation ->
+                rejections.stream().sorted((a, b) -> Long.compare(a.getRowNumber(), b.getRowNumber())).toList());
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> names(List<CreateDogInput> inputs) {
+        return inputs.stream().map(CreateDogInput::getName).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.model.DogChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogIndexFeedTest {
+
+    @Mock
+    private DogChangeService dogChangeService;
+
+    @Mock
+    private DogSearchIndex dogSearchIndex;
+
+    @Mock
+    private CharacteristicIndex characteristicIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final DogsProperties properties = new DogsProperties();
+
+    private DogIndexFeed dogIndexFeed;
+
+    @BeforeEach
+    void setUp() {
+        properties.getChanges().setBatchSize(2);
+        dogIndexFeed = new DogIndexFeed(dogChangeService, dogSearchIndex, characteristicIndex, properties,
+                transactionManager);
+    }
+
+    @Test
+    void poll_DoesNothing_UntilBuilt() {
+        // When
+        dogIndexFeed.poll();
+
+        // Then
+        verifyNoInteractions(dogChangeService, dogSearchIndex, characteristicIndex);
+    }
+
+    @Test
+    void poll_RefreshesDogsChangedSinceBuilt_ABatchAtATime() {
+        // Given
+        when(dogChangeService.getLastSeq()).thenReturn(5L);
+        dogIndexFeed.rebuild();
+        when(dogChangeService.getChangedDogs(5L, 2)).thenReturn(List.of(change(6L, 1L), change(7L, 2L)));
+        when(dogChangeService.getChangedDogs(7L, 2)).thenReturn(List.of(change(8L, 1L)));
+        when(dogChangeService.getChangedDogs(8L, 2)).thenReturn(List.of());
+
+        // When
+        dogIndexFeed.poll();
+        dogIndexFeed.poll();
+
+        // Then
+        verify(dogSearchIndex).refresh(Set.of(1L, 2L));
+        verify(dogSearchIndex).refresh(Set.of(1L));
+        verify(characteristicIndex).refresh(Set.of(1L, 2L));
+        verify(characteristicIndex).refresh(Set.of(1L));
+        verify(dogChangeService).getChangedDogs(8L, 2);
+    }
+
+    @Test
+    void poll_Rebuilds_WhenChangesPurged() {
+        // Given
+        when(dogChangeService.getLastSeq()).thenReturn(5L);
+        dogIndexFeed.rebuild();
+        when(dogChangeService.getChangedDogs(anyLong(), anyInt()))
+                .thenThrow(new ResponseStatusException(HttpStatus.GONE));
+
+        // When
+        dogIndexFeed.poll();
+
+        // Then
+        verify(dogSearchIndex, times(2)).rebuild();
+        verify(characteristicIndex, times(2)).rebuild();
+    }
+
+    private static DogChange change(long seq, Long dogId) {
+        return new DogChange(seq, dogId, DogChangedEvent.Type.UPDATED, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,114 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.repository.DogRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogInputValidatorTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    private DogInputValidator dogInputValidator;
+
+    @BeforeEach
+    void setUp() {
+        dogInputValidator = new DogInputValidator(Validation.buildDefaultValidatorFactory().getValidator(), dogRepository);
+    }
+
+    @Test
+    void validate_ReturnsNoErrors_WhenAllValid() {
+        // Given
+        when(dogRepository.findExistingBadgeIds(anyCollection())).thenReturn(Set.of());
+
+        // When
+        Map<Integer, Map<String, String>> errors = validate(List.of(input("B-1"), input("B-2")));
+
+        // Then
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void validate_ReportsErrorsByIndexAndField() {
+        // Given
+        CreateDogInput unnamed = input("B-2");
+        unnamed.setName(" ");
+        when(dogRepository.findExistingBadgeIds(anyCollection())).thenReturn(Set.of("B-3"));
+
+        // When
+        Map<Integer, Map<String, String>> errors = validate(
+                Arrays.asList(input("B-1"), unnamed, input("B-1"), input("B-3"), null));
+
+        // Then
+        assertEquals(Set.of(1, 2, 3, 4), errors.keySet());
+        assertEquals(Set.of("name"), errors.get(1).keySet());
+        assertEquals("duplicate badgeId in request", errors.get(2).get("badgeId"));
+        assertEquals("badgeId already exists", errors.get(3).get("badgeId"));
+        assertEquals("must not be null", errors.get(4).get(""));
+    }
+
+    @Test
+    void validateInputs_DoesNotQuery() {
+        // When
+        Map<Integer, Map<String, String>> errors = dogInputValidator.validateInputs(List.of(input("B-1"), input("B-1")));
+
+        // Then
+        assertEquals(Set.of(1), errors.keySet());
+        verifyNoInteractions(dogRepository);
+    }
+
+    @Test
+    void validate_SkipsBadgeIdLookup_WhenNoBadgeIds() {
+        // When
+        Map<Integer, Map<String, String>> errors = validate(List.of(input(null), input(null)));
+
+        // Then
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void validate_SkipsDogsWithoutBadgeId_WhenCheckingExisting() {
+        // Given
+        when(dogRepository.findExistingBadgeIds(anyCollection())).thenReturn(Set.of());
+
+        // When
+        Map<Integer, Map<String, String>> errors = validate(List.of(input("B-1"), input(null)));
+
+        // Then
+        assertTrue(errors.isEmpty());
+    }
+
+    private Map<Integer, Map<String, String>> validate(List<CreateDogInput> inputs) {
+        Map<Integer, Map<String, String>> errors = dogInputValidator.validateInputs(inputs);
+        dogInputValidator.validateBadgeIds(inputs, errors);
+        return errors;
+    }
+
+    private static CreateDogInput input(String badgeId) {
+        return CreateDogInput.builder()
+                .name("Rocky")
+                .breed("Labrador")
+                .supplier("SupplierA")
+                .currentStatus(CurrentStatus.IN_SERVICE)
+                .badgeId(badgeId)
+                .build();
+    }
+}
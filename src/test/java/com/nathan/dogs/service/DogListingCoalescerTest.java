@@ -0,0 +1,208 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.model.TableVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogListingCoalescerTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final DogsProperties properties = new DogsProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(tableVersionService.latest(TableVersion.DOG)).thenReturn(1L);
+    }
+
+    @Test
+    void getDogs_IdenticalConcurrentRequests_ShareOneQuery() throws Exception {
+        // Given
+        DogListingCoalescer coalescer = coalescer();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Page<DogOutput>> slowQuery = () -> {
+            started.countDown();
+            await(release);
+            return page();
+        };
+
+        // When
+        CompletableFuture<Versioned<Page<DogOutput>>> first = CompletableFuture.supplyAsync(
+                () -> coalescer.getDogs(Map.of("breed", "Labrador"), FIRST_PAGE, slowQuery));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Versioned<Page<DogOutput>>> second = CompletableFuture.supplyAsync(
+                () -> coalescer.getDogs(Map.of("breed", "Labrador", "page", "0"), FIRST_PAGE, this::query));
+        while (count("joined") == 0 && !second.isDone()) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, queries.get());
+        assertEquals(1, count("executed"));
+        assertEquals(1, count("joined"));
+    }
+
+    @Test
+    void getDogs_ReturnsVersionReadBeforeQuery() {
+        // Given
+        DogListingCoalescer coalescer = coalescer();
+        when(tableVersionService.current(TableVersion.DOG)).thenReturn(3L);
+
+        // When
+        Versioned<Page<DogOutput>> dogs = coalescer.getDogs(Map.of(), FIRST_PAGE, () -> {
+            verify(tableVersionService).current(TableVersion.DOG);
+            return query();
+        });
+
+        // Then
+        assertEquals(3L, dogs.getVersion());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void getDogs_WithinReuseWindow_ReusesPageForSameFiltersInAnyOrder() {
+        // Given
+        properties.getListingCoalescing().setReuseWindow(Duration.ofMinutes(1));
+        DogListingCoalescer coalescer = coalescer();
+        Map<String, String> filter = new LinkedHashMap<>();
+        filter.put("supplier", "SupplierA");
+        filter.put("breed", "Labrador");
+
+        // When
+        Versioned<Page<DogOutput>> first = coalescer.getDogs(Map.of("breed", "Labrador", "supplier", "SupplierA"),
+                FIRST_PAGE, this::query);
+        Versioned<Page<DogOutput>> second = coalescer.getDogs(filter, FIRST_PAGE, this::query);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, queries.get());
+        assertEquals(1, count("reused"));
+    }
+
+    @Test
+    void getDogs_AfterChange_QueriesAgain() {
+        // Given
+        properties.getListingCoalescing().setReuseWindow(Duration.ofMinutes(1));
+        DogListingCoalescer coalescer = coalescer();
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+        when(tableVersionService.latest(TableVersion.DOG)).thenReturn(2L);
+
+        // When
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+
+        // Then
+        assertEquals(2, queries.get());
+        assertEquals(0, count("reused"));
+    }
+
+    @Test
+    void getDogs_DifferentPage_QueriesAgain() {
+        // Given
+        properties.getListingCoalescing().setReuseWindow(Duration.ofMinutes(1));
+        DogListingCoalescer coalescer = coalescer();
+
+        // When
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+        coalescer.getDogs(Map.of(), PageRequest.of(1, 20), this::query);
+
+        // Then
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void getDogs_NoReuseWindow_QueriesEachSequentialRequest() {
+        // Given
+        DogListingCoalescer coalescer = coalescer();
+
+        // When
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+
+        // Then
+        assertEquals(2, queries.get());
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void getDogs_QueryFails_NotReused() {
+        // Given
+        properties.getListingCoalescing().setReuseWindow(Duration.ofMinutes(1));
+        DogListingCoalescer coalescer = coalescer();
+
+        // When
+        assertThrows(ResponseStatusException.class, () -> coalescer.getDogs(Map.of(), FIRST_PAGE, () -> {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+        }));
+        coalescer.getDogs(Map.of(), FIRST_PAGE, this::query);
+
+        // Then
+        assertEquals(1, queries.get());
+    }
+
+    private DogListingCoalescer coalescer() {
+        return new DogListingCoalescer(tableVersionService, transactionManager, properties, meterRegistry);
+    }
+
+    private Page<DogOutput> query() {
+        queries.incrementAndGet();
+        return page();
+    }
+
+    private static Page<DogOutput> page() {
+        return new PageImpl<>(List.of(DogOutput.builder().name("Rocky").build()));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("dogs.listing.coalesced").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
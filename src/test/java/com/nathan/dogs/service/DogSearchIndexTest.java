@@ -0,0 +1,140 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.repository.DogRepository;
+import com.nathan.dogs.repository.DogSearchEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogSearchIndexTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @InjectMocks
+    private DogSearchIndex dogSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(dogRepository.streamSearchEntries()).thenReturn(Stream.empty());
+        dogSearchIndex.rebuild();
+
+        dogSearchIndex.onDogChanged(DogChangedEvent.created(snapshot(1L, "Rocky", "Labrador", "Acme Kennels")));
+        dogSearchIndex.onDogChanged(DogChangedEvent.created(snapshot(2L, "Rex", "Labradoodle", "Northern Breeders")));
+        dogSearchIndex.onDogChanged(DogChangedEvent.created(snapshot(3L, "Bella", "Springer Spaniel", "Acme Kennels")));
+    }
+
+    @Test
+    void search_ReturnsSubstringMatches_IgnoringCase() {
+        assertEquals(Optional.of(Set.of(1L, 2L)), dogSearchIndex.search("breed", "LABRAD"));
+        assertEquals(Optional.of(Set.of(1L, 3L)), dogSearchIndex.search("supplier", "acme"));
+        assertEquals(Optional.of(Set.of(3L)), dogSearchIndex.search("name", "ell"));
+    }
+
+    @Test
+    void search_ExcludesFalsePositives_WhenAllTrigramsPresent() {
+        // Given
+        dogSearchIndex.onDogChanged(DogChangedEvent.created(snapshot(4L, "Tango Gotan", "Collie", "Acme Kennels")));
+
+        // "tango gotan" contains every trigram of "ngota", but not the substring
+        assertEquals(Optional.of(Set.of()), dogSearchIndex.search("name", "ngota"));
+        assertEquals(Optional.of(Set.of(4L)), dogSearchIndex.search("name", "go got"));
+    }
+
+    @Test
+    void search_ReturnsEmpty_WhenValueShorterThanTrigram() {
+        assertTrue(dogSearchIndex.search("name", "re").isEmpty());
+    }
+
+    @Test
+    void onDogChanged_ReindexesUpdatedAndDeletedDogs() {
+        // When
+        dogSearchIndex.onDogChanged(DogChangedEvent.updated(
+                snapshot(1L, "Rocky", "Labrador", "Acme Kennels"),
+                snapshot(1L, "Rocky", "Pug", "Acme Kennels")));
+        dogSearchIndex.onDogChanged(DogChangedEvent.deleted(snapshot(2L, "Rex", "Labradoodle", "Northern Breeders")));
+
+        // Then
+        assertEquals(Optional.of(Set.of()), dogSearchIndex.search("breed", "labrador"));
+        assertEquals(Optional.of(Set.of(1L)), dogSearchIndex.search("breed", "pug"));
+        assertEquals(Optional.of(Set.of()), dogSearchIndex.search("supplier", "northern"));
+    }
+
+    @Test
+    void refresh_RereadsChangedDogs_RemovingThoseNoLongerFound() {
+        // Given
+        when(dogRepository.findSearchEntries(List.of(1L, 2L)))
+                .thenReturn(List.of(entry(1L, "Rocky", "Pug", "Acme Kennels")));
+
+        // When
+        dogSearchIndex.refresh(List.of(1L, 2L));
+
+        // Then
+        assertEquals(Optional.of(Set.of(1L)), dogSearchIndex.search("breed", "pug"));
+        assertEquals(Optional.of(Set.of()), dogSearchIndex.search("breed", "labrad"));
+        assertEquals(Optional.of(Set.of(3L)), dogSearchIndex.search("name", "ell"));
+    }
+
+    @Test
+    void rebuild_ServesPreviousIndex_AndReplaysChangesMadeWhileBuilding() {
+        // Given
+        List<Optional<Set<Long>>> duringBuild = new ArrayList<>();
+        when(dogRepository.streamSearchEntries()).thenReturn(Stream.of(entry(5L, "Bruno", "Beagle", "Acme Kennels"))
+                .peek(entry -> {
+                    duringBuild.add(dogSearchIndex.search("supplier", "acme"));
+                    dogSearchIndex.onDogChanged(DogChangedEvent.created(snapshot(6L, "Luna", "Boxer", "Acme Kennels")));
+                }));
+
+        // When
+        dogSearchIndex.rebuild();
+
+        // Then
+        assertEquals(List.of(Optional.of(Set.of(1L, 3L))), duringBuild);
+        assertEquals(Optional.of(Set.of(5L, 6L)), dogSearchIndex.search("supplier", "acme"));
+    }
+
+    private static DogSearchEntry entry(Long id, String name, String breed, String supplier) {
+        return new DogSearchEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getBreed() {
+                return breed;
+            }
+
+            @Override
+            public String getSupplier() {
+                return supplier;
+            }
+        };
+    }
+
+    private static DogSnapshot snapshot(Long id, String name, String breed, String supplier) {
+        return new DogSnapshot(id, name, breed, supplier, CurrentStatus.IN_SERVICE, null, null, Set.of(), false);
+    }
+}
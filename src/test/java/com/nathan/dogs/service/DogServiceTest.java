@@ -1,32 +1,65 @@
 package com.nathan.dogs.service;
 
+import com.nathan.dogs.config.DogsProperties;
+import com.nathan.dogs.dto.BulkUpdateDogInput;
 import com.nathan.dogs.dto.CreateDogInput;
+import com.nathan.dogs.dto.DogBatch;
 import com.nathan.dogs.dto.DogOutput;
+import com.nathan.dogs.dto.DogSlice;
 import com.nathan.dogs.dto.UpdateDogInput;
+import com.nathan.dogs.dto.Versioned;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.exception.BulkValidationException;
+import com.nathan.dogs.model.Characteristic;
+import com.nathan.dogs.model.CurrentStatus;
 import com.nathan.dogs.mapper.DogMapper;
 import com.nathan.dogs.model.Dog;
 import com.nathan.dogs.model.Supplier;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogCharacteristicEntry;
 import com.nathan.dogs.repository.DogRepository;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,12 +78,40 @@ class DogServiceTest {
     @Mock
     private SupplierService supplierService;
 
+    @Mock
+    private CharacteristicService characteristicService;
+
+    @Mock
+    private DogChangeService dogChangeService;
+
+    @Mock
+    private DogStatisticsService dogStatisticsService;
+
+    @Mock
+    private DogFilter dogFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DogInputValidator dogInputValidator;
+
+    @Spy
+    private DogsProperties properties = new DogsProperties();
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @Mock
+    private DogListingCoalescer dogListingCoalescer;
+
     @InjectMocks
     private DogService dogService;
 
     private Dog dog;
     private DogOutput dogOutput;
     private Supplier supplier;
+    private final Specification<Dog> spec = (root, query, cb) -> null;
 
     @BeforeEach
     void setUp() {
@@ -69,41 +130,206 @@ class DogServiceTest {
     void getDogs_ReturnsAllDogs_WhenNoFilter() {
         // Given
         Page<Dog> dogPage = new PageImpl<>(List.of(dog));
-        when(dogRepository.findByDeletedFalse(any(Pageable.class))).thenReturn(dogPage);
+        runListingQueries();
+        when(dogFilter.toSpecification(Collections.emptyMap())).thenReturn(spec);
+        when(dogRepository.findAll(eq(spec), any(Pageable.class))).thenReturn(dogPage);
+        when(dogMapper.toOutputDto(any(Dog.class))).thenReturn(dogOutput);
+
+        // When
+        Page<DogOutput> result = dogService.getDogs(Collections.emptyMap(), Pageable.unpaged()).getValue();
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        verify(dogRepository).findAll(eq(spec), any(Pageable.class));
+        verify(dogRepository).fetchKennellingCharacteristics(List.of(1L));
+    }
+
+    @Test
+    void getDogs_CompilesAllFiltersIntoOneQuery() {
+        // Given
+        Map<String, String> filter = Map.of("breed", DOG_BREED, "supplier", SUPPLIER);
+        runListingQueries();
+        when(dogFilter.toSpecification(filter)).thenReturn(spec);
+        when(dogRepository.findAll(eq(spec), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(dog)));
         when(dogMapper.toOutputDto(any(Dog.class))).thenReturn(dogOutput);
 
         // When
-        Page<DogOutput> result = dogService.getDogs(Collections.emptyMap(), Pageable.unpaged());
+        Page<DogOutput> result = dogService.getDogs(filter, Pageable.unpaged()).getValue();
 
         // Then
         assertEquals(1, result.getContent().size());
-        verify(dogRepository).findByDeletedFalse(any(Pageable.class));
+        verify(dogRepository).findAll(eq(spec), any(Pageable.class));
+    }
+
+    @Test
+    void getDogFields_SelectsOnlyRequestedFields() {
+        // Given
+        Tuple row = mock(Tuple.class);
+        when(row.get("id", Long.class)).thenReturn(1L);
+        when(row.get("name")).thenReturn(DOG_NAME);
+        when(dogFilter.toSpecification(Collections.emptyMap())).thenReturn(spec);
+        when(dogRepository.findAttributes(eq(spec), eq(List.of("name")), any(Pageable.class))).thenReturn(List.of(row));
+        when(dogRepository.findCharacteristicEntries(List.of(1L))).thenReturn(List.of(characteristicEntry(1L, "Vocal")));
+        when(tableVersionService.current(TableVersion.DOG)).thenReturn(9L);
+
+        // When
+        Versioned<Page<Map<String, Object>>> result = dogService.getDogFields(Collections.emptyMap(),
+                "kennellingCharacteristics, name", PageRequest.of(0, 20));
+
+        // Then
+        Map<String, Object> expected = Map.of("name", DOG_NAME, "kennellingCharacteristics", Set.of("Vocal"));
+        assertEquals(List.of(expected), result.getValue().getContent());
+        assertEquals(List.of("name", "kennellingCharacteristics"),
+                List.copyOf(result.getValue().getContent().getFirst().keySet()));
+        assertEquals(9L, result.getVersion());
+        verify(dogRepository, never()).count(ArgumentMatchers.<Specification<Dog>>any());
+        verifyNoInteractions(dogMapper);
+    }
+
+    @Test
+    void getDogFields_SkipsCharacteristics_WhenNotRequested() {
+        // Given
+        when(dogFilter.toSpecification(Collections.emptyMap())).thenReturn(spec);
+        when(dogRepository.findAttributes(eq(spec), eq(List.of("badgeId", "currentStatus")), any(Pageable.class)))
+                .thenReturn(List.of(mock(Tuple.class)));
+
+        // When
+        dogService.getDogFields(Collections.emptyMap(), "currentStatus,badgeId", PageRequest.of(0, 20));
+
+        // Then
+        verify(dogRepository, never()).findCharacteristicEntries(anyCollection());
+    }
+
+    @Test
+    void getDogFields_ThrowsException_WhenFieldUnknown() {
+        // When & Then
+        assertThrows(ResponseStatusException.class,
+                () -> dogService.getDogFields(Collections.emptyMap(), "name,supplierId", PageRequest.of(0, 20)));
+        verifyNoInteractions(dogRepository);
+    }
+
+    @Test
+    void getDogFieldsById_ThrowsException_WhenNotFound() {
+        // Given
+        when(dogRepository.findAttributes(any(), eq(List.of("name")), any(Pageable.class))).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogService.getDogFieldsById(1L, "name"));
+    }
+
+    @Test
+    void getDogsAfter_ReturnsNextCursor_WhenMoreDogs() {
+        // Given
+        Dog next = new Dog();
+        next.setId(2L);
+        when(dogFilter.toSpecification(anyMap())).thenReturn(spec);
+        when(dogRepository.findBy(ArgumentMatchers.<Specification<Dog>>any(), any()))
+                .thenReturn(List.of(dog, next))
+                .thenReturn(List.of());
+        when(dogMapper.toOutputDto(any(Dog.class))).thenReturn(dogOutput);
+
+        // When
+        DogSlice first = dogService.getDogsAfter(Collections.emptyMap(), "", 1).getValue();
+
+        // Then
+        assertEquals(1, first.getContent().size());
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getNextCursor());
+
+        // When
+        DogSlice second = dogService.getDogsAfter(Collections.emptyMap(), first.getNextCursor(), 1).getValue();
+
+        // Then
+        assertTrue(second.getContent().isEmpty());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getDogsAfter_ThrowsException_WhenCursorInvalid() {
+        assertThrows(ResponseStatusException.class,
+                () -> dogService.getDogsAfter(Collections.emptyMap(), "not-a-cursor", 20));
     }
 
     @Test
     void getDogById_ReturnsDog_WhenExists() {
         // Given
-        when(dogRepository.findById(1L)).thenReturn(Optional.of(dog));
+        when(dogRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(dog));
         when(dogMapper.toOutputDto(dog)).thenReturn(dogOutput);
 
+        dog.setVersion(4L);
+
         // When
-        DogOutput result = dogService.getDogById(1L);
+        Versioned<DogOutput> result = dogService.getDogById(1L);
 
         // Then
-        assertEquals(DOG_NAME, result.getName());
-        verify(dogRepository).findById(1L);
+        assertEquals(DOG_NAME, result.getValue().getName());
+        assertEquals(4L, result.getVersion());
+        verify(dogRepository).findByIdAndDeletedFalse(1L);
+    }
+
+    @Test
+    void getDogVersion_ThrowsException_WhenNotFound() {
+        // Given
+        when(dogRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogService.getDogVersion(1L));
     }
 
     @Test
     void getDogById_ThrowsException_WhenNotFound() {
         // Given
-        when(dogRepository.findById(1L)).thenReturn(Optional.empty());
+        when(dogRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
 
         // When
         // Then
         assertThrows(ResponseStatusException.class, () -> dogService.getDogById(1L));
     }
 
+    @Test
+    void getDogsByIds_KeysDogsInRequestOrder_AndReportsMissing() {
+        // Given
+        Dog deleted = new Dog();
+        deleted.setId(3L);
+        deleted.setDeleted(true);
+        when(dogRepository.fetchWithAssociations(Set.of(1L, 2L, 3L))).thenReturn(List.of(deleted, dog));
+        when(dogMapper.toOutputDto(dog)).thenReturn(dogOutput);
+
+        // When
+        DogBatch<Long> result = dogService.getDogsByIds(List.of(2L, 1L, 3L, 1L));
+
+        // Then
+        assertEquals(List.of(1L), List.copyOf(result.getDogs().keySet()));
+        assertEquals(DOG_NAME, result.getDogs().get(1L).getName());
+        assertEquals(List.of(2L, 3L), result.getMissing());
+    }
+
+    @Test
+    void getDogsByBadgeIds_KeysDogsByBadgeId() {
+        // Given
+        dog.setBadgeId("B-1");
+        when(dogRepository.fetchByBadgeIds(Set.of("B-1", "B-2"))).thenReturn(List.of(dog));
+        when(dogMapper.toOutputDto(dog)).thenReturn(dogOutput);
+
+        // When
+        DogBatch<String> result = dogService.getDogsByBadgeIds(List.of("B-1", "B-2"));
+
+        // Then
+        assertEquals(Set.of("B-1"), result.getDogs().keySet());
+        assertEquals(List.of("B-2"), result.getMissing());
+    }
+
+    @Test
+    void getDogsByIds_ThrowsException_WhenTooManyIds() {
+        // Given
+        properties.getBatchLookup().setMaxSize(2);
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogService.getDogsByIds(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(dogRepository);
+    }
+
     @Test
     void createDog_SavesAndReturnsOutput() {
         // Given
@@ -127,6 +353,105 @@ class DogServiceTest {
         assertNotNull(result);
         assertEquals(DOG_NAME, result.getName());
         verify(dogRepository).save(dog);
+        verify(dogChangeService).record(argThat(events -> events.size() == 1));
+        verify(eventPublisher).publishEvent(any(DogChangedEvent.class));
+    }
+
+    @Test
+    void createDogs_ResolvesSuppliersOnce_AndSavesAll() {
+        // Given
+        supplier = new Supplier();
+        supplier.setName(SUPPLIER);
+        List<CreateDogInput> inputs = List.of(validInput("B-1"), validInput("B-2"), validInput(null));
+
+        when(dogInputValidator.validateInputs(inputs)).thenReturn(new TreeMap<>());
+        when(supplierService.findOrCreateSuppliers(Set.of(SUPPLIER))).thenReturn(Map.of(SUPPLIER, supplier));
+        when(dogMapper.toEntity(any(CreateDogInput.class))).thenAnswer(invocation -> new Dog());
+        when(dogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dogMapper.toOutputDto(any(Dog.class))).thenReturn(dogOutput);
+
+        // When
+        List<DogOutput> result = dogService.createDogs(inputs);
+
+        // Then
+        assertEquals(3, result.size());
+        verify(supplierService, times(1)).findOrCreateSuppliers(Set.of(SUPPLIER));
+        verify(supplierService, never()).findOrCreateSupplier(any());
+        verify(eventPublisher, times(3)).publishEvent(any(DogChangedEvent.class));
+        verify(dogChangeService).record(argThat(events -> events.size() == 3));
+    }
+
+    @Test
+    void createDogs_ResolvesSuppliers_BeforeFirstQuery() {
+        // Given
+        supplier = new Supplier();
+        supplier.setName(SUPPLIER);
+        List<CreateDogInput> inputs = List.of(validInput("B-1"));
+        when(dogInputValidator.validateInputs(inputs)).thenReturn(new TreeMap<>());
+        when(supplierService.findOrCreateSuppliers(Set.of(SUPPLIER))).thenReturn(Map.of(SUPPLIER, supplier));
+        when(dogMapper.toEntity(any(CreateDogInput.class))).thenAnswer(invocation -> new Dog());
+        when(dogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        dogService.createDogs(inputs);
+
+        // Then: no connection is held while suppliers are created on their own
+        InOrder order = inOrder(supplierService, dogInputValidator);
+        order.verify(supplierService).findOrCreateSuppliers(Set.of(SUPPLIER));
+        order.verify(dogInputValidator).validateBadgeIds(eq(inputs), anyMap());
+    }
+
+    @Test
+    void saveDogs_ResolvesCharacteristicsOnce() {
+        // Given
+        supplier = new Supplier();
+        supplier.setName(SUPPLIER);
+        Characteristic calm = new Characteristic("calm");
+        calm.setId(1);
+        List<CreateDogInput> inputs = List.of(validInput("B-1"), validInput("B-2"));
+
+        when(characteristicService.findOrCreateCharacteristics(Set.of("calm"))).thenReturn(Map.of("calm", calm));
+        when(dogMapper.toEntity(any(CreateDogInput.class))).thenAnswer(invocation -> {
+            Dog dog = new Dog();
+            dog.getKennellingCharacteristics().add(new Characteristic("calm"));
+            return dog;
+        });
+        when(dogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Dog> saved = dogService.saveDogs(inputs, Map.of(SUPPLIER, supplier));
+
+        // Then
+        verify(characteristicService, times(1)).findOrCreateCharacteristics(Set.of("calm"));
+        saved.forEach(dog -> assertSame(calm, dog.getKennellingCharacteristics().iterator().next()));
+    }
+
+    @Test
+    void createDogs_ReportsEveryInvalidDog_AndSavesNone() {
+        // Given
+        List<CreateDogInput> inputs = List.of(validInput("B-1"), validInput("B-2"), validInput("B-1"));
+        when(dogInputValidator.validateInputs(inputs)).thenReturn(new TreeMap<>(Map.of(
+                1, Map.of("name", "must not be blank"),
+                2, Map.of("badgeId", "duplicate badgeId in request"))));
+
+        // When
+        BulkValidationException ex = assertThrows(BulkValidationException.class, () -> dogService.createDogs(inputs));
+
+        // Then
+        assertEquals(Set.of("[1].name", "[2].badgeId"), ex.getErrors().keySet());
+        verifyNoInteractions(supplierService);
+        verify(dogRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createDogs_ThrowsException_WhenTooManyDogs() {
+        // Given
+        properties.getBulk().setMaxSize(2);
+        List<CreateDogInput> inputs = IntStream.range(0, 3).mapToObj(i -> validInput(null)).toList();
+
+        // Then
+        assertThrows(ResponseStatusException.class, () -> dogService.createDogs(inputs));
+        verify(dogRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -154,6 +479,70 @@ class DogServiceTest {
                 dogService.updateDog(1L, UpdateDogInput.builder().name("TEST").build()));
     }
 
+    @Test
+    void updateDogs_UpdatesInBatches_AndPublishesEventPerDog() {
+        // Given
+        properties.getBulkUpdate().setBatchSize(2);
+        Dog other = new Dog();
+        other.setId(2L);
+        Dog last = new Dog();
+        last.setId(3L);
+        when(dogFilter.toSpecification(anyMap())).thenReturn(spec);
+        // Each batch is found, then checked again once locked
+        when(dogRepository.findIds(any(), eq(2))).thenReturn(List.of(1L, 2L), List.of(1L, 2L), List.of(3L), List.of(3L));
+        when(dogRepository.fetchWithAssociations(anyCollection())).thenReturn(List.of(dog, other), List.of(last));
+        when(dogRepository.updateStatus(anyCollection(), eq(CurrentStatus.LEFT), any(), any(), any()))
+                .thenReturn(2, 1);
+        BulkUpdateDogInput patch = BulkUpdateDogInput.builder().currentStatus(CurrentStatus.LEFT).build();
+
+        // When
+        long updated = dogService.updateDogs(Map.of("supplier", SUPPLIER), patch);
+
+        // Then
+        assertEquals(3, updated);
+        verify(dogRepository, times(2)).updateStatus(anyCollection(), eq(CurrentStatus.LEFT), any(), any(), any());
+        verify(eventPublisher, times(3)).publishEvent(any(DogChangedEvent.class));
+        verify(dogChangeService).record(argThat(events -> events.size() == 2));
+        verify(dogChangeService).record(argThat(events -> events.size() == 1));
+        verify(dogRepository).lockForUpdate(List.of(1L, 2L));
+        verify(dogRepository).lockForUpdate(List.of(3L));
+    }
+
+    @Test
+    void updateDogs_SkipsDogsNoLongerMatchingOnceLocked() {
+        // Given
+        when(dogFilter.toSpecification(anyMap())).thenReturn(spec);
+        when(dogRepository.findIds(any(), anyInt())).thenReturn(List.of(1L, 2L), List.of(1L));
+        when(dogRepository.fetchWithAssociations(List.of(1L))).thenReturn(List.of(dog));
+        when(dogRepository.updateStatus(eq(List.of(1L)), eq(CurrentStatus.LEFT), any(), any(), any())).thenReturn(1);
+        BulkUpdateDogInput patch = BulkUpdateDogInput.builder().currentStatus(CurrentStatus.LEFT).build();
+
+        // When
+        long updated = dogService.updateDogs(Map.of("supplier", SUPPLIER), patch);
+
+        // Then
+        assertEquals(1, updated);
+        verify(eventPublisher, times(1)).publishEvent(any(DogChangedEvent.class));
+    }
+
+    @Test
+    void updateDogs_ThrowsException_WhenPatchEmpty() {
+        // When & Then
+        assertThrows(ResponseStatusException.class, () ->
+                dogService.updateDogs(Map.of("supplier", SUPPLIER), new BulkUpdateDogInput()));
+        verifyNoInteractions(dogRepository, dogChangeService);
+    }
+
+    @Test
+    void updateDogs_ThrowsException_WhenNoFilter() {
+        // Given
+        BulkUpdateDogInput patch = BulkUpdateDogInput.builder().currentStatus(CurrentStatus.LEFT).build();
+
+        // When & Then
+        assertThrows(ResponseStatusException.class, () -> dogService.updateDogs(Map.of("page", "0"), patch));
+        verifyNoInteractions(dogRepository, dogChangeService);
+    }
+
     @Test
     void deleteDog_SetsDeletedTrue_WhenFound() {
         // Given
@@ -165,6 +554,22 @@ class DogServiceTest {
         // Then
         assertTrue(dog.isDeleted());
         verify(dogRepository).save(dog);
+        verify(dogChangeService).record(argThat(events -> events.size() == 1));
+        verify(eventPublisher).publishEvent(any(DogChangedEvent.class));
+    }
+
+    @Test
+    void deleteDog_DoesNothing_WhenAlreadyDeleted() {
+        // Given
+        dog.setDeleted(true);
+        when(dogRepository.findById(1L)).thenReturn(Optional.of(dog));
+
+        // When
+        dogService.deleteDog(1L);
+
+        // Then
+        verify(dogRepository, never()).save(any(Dog.class));
+        verifyNoInteractions(dogChangeService, eventPublisher);
     }
 
     @Test
@@ -176,4 +581,35 @@ class DogServiceTest {
         // Then
         assertThrows(ResponseStatusException.class, () -> dogService.deleteDog(1L));
     }
+
+    private static DogCharacteristicEntry characteristicEntry(Long id, String characteristic) {
+        return new DogCharacteristicEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCharacteristic() {
+                return characteristic;
+            }
+        };
+    }
+
+    private static CreateDogInput validInput(String badgeId) {
+        return CreateDogInput.builder()
+                .name(DOG_NAME)
+                .breed(DOG_BREED)
+                .supplier(SUPPLIER)
+                .currentStatus(CurrentStatus.IN_TRAINING)
+                .badgeId(badgeId)
+                .build();
+    }
+
+    // The coalescer runs each listing query itself, as for a request with no identical one running
+    private void runListingQueries() {
+        when(dogListingCoalescer.getDogs(anyMap(), any(Pageable.class), any()))
+                .thenAnswer(invocation -> new Versioned<>(
+                        invocation.getArgument(2, java.util.function.Supplier.class).get(), 1L));
+    }
 }
@@ -0,0 +1,191 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.dto.DogStatistics;
+import com.nathan.dogs.event.DogChangedEvent;
+import com.nathan.dogs.event.DogSnapshot;
+import com.nathan.dogs.model.CurrentStatus;
+import com.nathan.dogs.model.DogStatistic;
+import com.nathan.dogs.model.Gender;
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.DogCount;
+import com.nathan.dogs.repository.DogRepository;
+import com.nathan.dogs.repository.DogStatisticRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.nathan.dogs.constant.DogConstants.BREED;
+import static com.nathan.dogs.constant.DogConstants.CURRENT_STATUS;
+import static com.nathan.dogs.constant.DogConstants.GENDER;
+import static com.nathan.dogs.constant.DogConstants.LEAVING_REASON;
+import static com.nathan.dogs.constant.DogConstants.SUPPLIER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogStatisticsServiceTest {
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private DogStatisticRepository dogStatisticRepository;
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @InjectMocks
+    private DogStatisticsService dogStatisticsService;
+
+    @Test
+    void getStatistics_ReturnsCountsFromSummaryTable() {
+        // Given
+        when(dogStatisticRepository.findAll()).thenReturn(List.of(
+                new DogStatistic(CURRENT_STATUS, "IN_SERVICE", 2),
+                new DogStatistic(CURRENT_STATUS, "RETIRED", 1),
+                new DogStatistic(CURRENT_STATUS, "IN_TRAINING", 0),
+                new DogStatistic(GENDER, "MALE", 2),
+                new DogStatistic(GENDER, "NONE", 1),
+                new DogStatistic(LEAVING_REASON, "NONE", 3)));
+
+        // When
+        DogStatistics statistics = dogStatisticsService.getStatistics();
+
+        // Then
+        assertEquals(3, statistics.getTotal());
+        assertEquals(Map.of("IN_SERVICE", 2L, "RETIRED", 1L), statistics.getCurrentStatus());
+        assertEquals(Map.of("MALE", 2L, "NONE", 1L), statistics.getGender());
+        assertEquals(Map.of("NONE", 3L), statistics.getLeavingReason());
+        assertEquals(Map.of(), statistics.getBreed());
+    }
+
+    @Test
+    void seed_EmptyTable_CountsDogTable() {
+        // Given
+        when(dogStatisticRepository.count()).thenReturn(0L);
+        when(dogRepository.countByCurrentStatus()).thenReturn(List.of(
+                count(CurrentStatus.IN_SERVICE, 2), count(CurrentStatus.RETIRED, 1)));
+        when(dogRepository.countByGender()).thenReturn(List.of(count(Gender.MALE, 2), count(null, 1)));
+        when(dogRepository.countByBreed()).thenReturn(List.of(count("Labrador", 3)));
+        when(dogRepository.countBySupplier()).thenReturn(List.of(count("SupplierA", 3)));
+        when(dogRepository.countByLeavingReason()).thenReturn(List.of(count(null, 3)));
+
+        // When
+        dogStatisticsService.seed();
+
+        // Then
+        verify(tableVersionService).lock(TableVersion.DOG);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DogStatistic>> saved = ArgumentCaptor.forClass(List.class);
+        verify(dogStatisticRepository).saveAll(saved.capture());
+        assertEquals(Set.of(
+                        "currentStatus/IN_SERVICE=2", "currentStatus/RETIRED=1",
+                        "gender/MALE=2", "gender/NONE=1",
+                        "breed/Labrador=3", "supplier/SupplierA=3", "leavingReason/NONE=3"),
+                saved.getValue().stream()
+                        .map(statistic -> statistic.getField() + "/" + statistic.getCategory() + "=" + statistic.getDogs())
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void seed_AlreadyCounted_DoesNotRecount() {
+        // Given
+        when(dogStatisticRepository.count()).thenReturn(7L);
+
+        // When
+        dogStatisticsService.seed();
+
+        // Then
+        verifyNoInteractions(dogRepository);
+        verify(dogStatisticRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void record_AppliesSummedChanges() {
+        // Given
+        when(dogStatisticRepository.increment(anyString(), anyString(), anyLong())).thenReturn(1);
+
+        // When
+        dogStatisticsService.record(List.of(
+                DogChangedEvent.created(snapshot(4L, "Spaniel", CurrentStatus.IN_TRAINING, false)),
+                DogChangedEvent.updated(
+                        snapshot(1L, "Labrador", CurrentStatus.IN_SERVICE, false),
+                        snapshot(1L, "Labrador", CurrentStatus.RETIRED, false)),
+                DogChangedEvent.deleted(snapshot(2L, "Labrador", CurrentStatus.IN_SERVICE, false))));
+
+        // Then
+        verify(tableVersionService).lock(TableVersion.DOG);
+        verify(dogStatisticRepository).increment(CURRENT_STATUS, "IN_TRAINING", 1);
+        verify(dogStatisticRepository).increment(CURRENT_STATUS, "IN_SERVICE", -2);
+        verify(dogStatisticRepository).increment(CURRENT_STATUS, "RETIRED", 1);
+        verify(dogStatisticRepository).increment(BREED, "Spaniel", 1);
+        verify(dogStatisticRepository).increment(BREED, "Labrador", -1);
+        // One dog created and one deleted, both male from SupplierA, so those counts are unchanged
+        verify(dogStatisticRepository, never()).increment(eq(GENDER), anyString(), anyLong());
+        verify(dogStatisticRepository, never()).increment(eq(SUPPLIER), anyString(), anyLong());
+        verify(dogStatisticRepository, never()).save(any());
+    }
+
+    @Test
+    void record_NewCategory_InsertsCount() {
+        // Given
+        when(dogStatisticRepository.increment(anyString(), anyString(), anyLong())).thenReturn(1);
+        when(dogStatisticRepository.increment(BREED, "Pug", 1)).thenReturn(0);
+
+        // When
+        dogStatisticsService.record(List.of(
+                DogChangedEvent.created(snapshot(4L, "Pug", CurrentStatus.IN_TRAINING, false))));
+
+        // Then
+        ArgumentCaptor<DogStatistic> saved = ArgumentCaptor.forClass(DogStatistic.class);
+        verify(dogStatisticRepository).save(saved.capture());
+        assertEquals(BREED, saved.getValue().getField());
+        assertEquals("Pug", saved.getValue().getCategory());
+        assertEquals(1, saved.getValue().getDogs());
+    }
+
+    @Test
+    void record_DeletedDogs_DoesNotWrite() {
+        // When
+        dogStatisticsService.record(List.of(DogChangedEvent.updated(
+                snapshot(5L, "Labrador", CurrentStatus.IN_SERVICE, true),
+                snapshot(5L, "Spaniel", CurrentStatus.RETIRED, true))));
+
+        // Then
+        verifyNoInteractions(dogStatisticRepository, tableVersionService);
+    }
+
+    private static DogSnapshot snapshot(Long id, String breed, CurrentStatus status, boolean deleted) {
+        return new DogSnapshot(id, "Dog" + id, breed, "SupplierA", status, Gender.MALE, null, Set.of(), deleted);
+    }
+
+    private static DogCount count(Object category, long dogs) {
+        return new DogCount() {
+            @Override
+            public Object getCategory() {
+                return category;
+            }
+
+            @Override
+            public long getDogs() {
+                return dogs;
+            }
+        };
+    }
+}
@@ -1,17 +1,30 @@
 package com.nathan.dogs.service;
 
+import com.nathan.dogs.config.DogsProperties;
 import com.nathan.dogs.model.Supplier;
 import com.nathan.dogs.repository.SupplierRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,9 +35,20 @@ class SupplierServiceTest {
     @Mock
     private SupplierRepository supplierRepository;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private SupplierService supplierService;
 
+    @BeforeEach
+    void setUp() {
+        supplierService = new SupplierService(supplierRepository, transactionManager, new DogsProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        supplierService.shutdown();
+    }
 
     @Test
     void findOrCreateSupplier_WhenSupplierExists_ReturnsExistingSupplier() {
@@ -43,7 +67,7 @@ class SupplierServiceTest {
         assertEquals(SUPPLIER, result.getName());
         assertEquals(1L, result.getId());
         verify(supplierRepository, times(1)).findByName(SUPPLIER);
-        verify(supplierRepository, never()).save(any(Supplier.class));
+        verify(supplierRepository, never()).saveAndFlush(any(Supplier.class));
     }
 
     @Test
@@ -55,7 +79,7 @@ class SupplierServiceTest {
         newSupplier.setId(10L);
         newSupplier.setName(SUPPLIER);
 
-        when(supplierRepository.save(any(Supplier.class))).thenReturn(newSupplier);
+        when(supplierRepository.saveAndFlush(any(Supplier.class))).thenReturn(newSupplier);
 
         // When
         Supplier result = supplierService.findOrCreateSupplier(SUPPLIER);
@@ -65,6 +89,92 @@ class SupplierServiceTest {
         assertEquals(SUPPLIER, result.getName());
         assertEquals(10L, result.getId());
         verify(supplierRepository, times(1)).findByName(SUPPLIER);
-        verify(supplierRepository, times(1)).save(any(Supplier.class));
+        verify(supplierRepository, times(1)).saveAndFlush(any(Supplier.class));
+    }
+
+    @Test
+    void findOrCreateSuppliers_CreatesOnlyMissingSuppliers() {
+        // Given
+        Supplier existingSupplier = new Supplier();
+        existingSupplier.setName(SUPPLIER);
+        when(supplierRepository.findByNameIn(Set.of(SUPPLIER, "SupplierB"))).thenReturn(List.of(existingSupplier));
+        when(supplierRepository.saveAndFlush(any(Supplier.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Map<String, Supplier> result = supplierService.findOrCreateSuppliers(Set.of(SUPPLIER, "SupplierB"));
+
+        // Then
+        assertEquals(Set.of(SUPPLIER, "SupplierB"), result.keySet());
+        assertEquals(existingSupplier, result.get(SUPPLIER));
+        verify(supplierRepository, times(1)).findByNameIn(Set.of(SUPPLIER, "SupplierB"));
+        verify(supplierRepository).saveAndFlush(result.get("SupplierB"));
+    }
+
+    @Test
+    void findOrCreateSupplier_WhenCached_DoesNotQuery() {
+        // Given
+        Supplier existingSupplier = new Supplier();
+        existingSupplier.setName(SUPPLIER);
+        when(supplierRepository.findByName(SUPPLIER)).thenReturn(Optional.of(existingSupplier));
+        supplierService.findOrCreateSupplier(SUPPLIER);
+
+        // When
+        Supplier result = supplierService.findOrCreateSupplier(SUPPLIER);
+        Map<String, Supplier> results = supplierService.findOrCreateSuppliers(Set.of(SUPPLIER));
+
+        // Then
+        assertSame(existingSupplier, result);
+        assertSame(existingSupplier, results.get(SUPPLIER));
+        verify(supplierRepository, times(1)).findByName(SUPPLIER);
+        verify(supplierRepository, never()).findByNameIn(any());
+    }
+
+    @Test
+    void findOrCreateSupplier_WhenCreatedConcurrently_ReturnsTheirSupplier() {
+        // Given
+        Supplier theirSupplier = new Supplier();
+        theirSupplier.setId(20L);
+        theirSupplier.setName(SUPPLIER);
+        when(supplierRepository.findByName(SUPPLIER)).thenReturn(Optional.empty(), Optional.of(theirSupplier));
+        when(supplierRepository.saveAndFlush(any(Supplier.class)))
+                .thenThrow(new DataIntegrityViolationException("unique constraint"));
+
+        // When
+        Supplier result = supplierService.findOrCreateSupplier(SUPPLIER);
+
+        // Then
+        assertSame(theirSupplier, result);
+        verify(supplierRepository, times(2)).findByName(SUPPLIER);
+    }
+
+    @Test
+    void findOrCreateSupplier_ConcurrentRequests_CreateOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(supplierRepository.findByName(SUPPLIER)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        when(supplierRepository.saveAndFlush(any(Supplier.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Future<Supplier>> results;
+        try (ExecutorService requests = Executors.newFixedThreadPool(8)) {
+            results = IntStream.range(0, 8)
+                    .mapToObj(i -> requests.submit(() -> supplierService.findOrCreateSupplier(SUPPLIER)))
+                    .toList();
+            loading.await();
+            release.countDown();
+        }
+
+        // Then
+        Supplier created = results.getFirst().get();
+        for (Future<Supplier> result : results) {
+            assertSame(created, result.get());
+        }
+        verify(supplierRepository, times(1)).findByName(SUPPLIER);
+        verify(supplierRepository, times(1)).saveAndFlush(any(Supplier.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.nathan.dogs.service;
+
+import com.nathan.dogs.model.TableVersion;
+import com.nathan.dogs.repository.TableVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TableVersionServiceTest {
+
+    @Mock
+    private TableVersionRepository tableVersionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TableVersionService tableVersionService;
+
+    @Test
+    void bump_IncrementsExistingVersion() {
+        // Given
+        when(tableVersionRepository.increment(TableVersion.DOG, 3)).thenReturn(1);
+        when(tableVersionRepository.findVersion(TableVersion.DOG)).thenReturn(Optional.of(10L));
+
+        // When
+        long version = tableVersionService.bump(TableVersion.DOG, 3);
+
+        // Then
+        assertEquals(10L, version);
+        verify(tableVersionRepository, never()).save(any());
+    }
+
+    @Test
+    void bump_SeedsThenIncrements_WhenNotSeeded() {
+        // Given
+        when(tableVersionRepository.increment(TableVersion.DOG, 2)).thenReturn(0, 1);
+        when(tableVersionRepository.findVersion(TableVersion.DOG)).thenReturn(Optional.of(2L));
+
+        // When
+        long version = tableVersionService.bump(TableVersion.DOG, 2);
+
+        // Then
+        assertEquals(2L, version);
+        verify(tableVersionRepository).saveAndFlush(argThat(row -> row.getVersion() == 0));
+        verify(tableVersionRepository, times(2)).increment(TableVersion.DOG, 2);
+    }
+
+    @Test
+    void lock_SeedsThenLocks_WhenNotSeeded() {
+        // Given
+        when(tableVersionRepository.lockVersion(TableVersion.CHARACTERISTIC))
+                .thenReturn(Optional.empty(), Optional.of(0L));
+
+        // When
+        tableVersionService.lock(TableVersion.CHARACTERISTIC);
+
+        // Then
+        verify(tableVersionRepository).saveAndFlush(argThat(row -> row.getVersion() == 0));
+        verify(tableVersionRepository, times(2)).lockVersion(TableVersion.CHARACTERISTIC);
+    }
+
+    @Test
+    void seed_SkipsExistingVersion() {
+        // Given
+        when(tableVersionRepository.existsById(anyString())).thenReturn(true);
+
+        // When
+        tableVersionService.seed();
+
+        // Then
+        verify(tableVersionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void seed_IgnoresVersionCreatedConcurrently() {
+        // Given
+        when(tableVersionRepository.saveAndFlush(any(TableVersion.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When & Then
+        assertDoesNotThrow(() -> tableVersionService.seed());
+    }
+
+    @Test
+    void latest_ReturnsVersionSeen_WithoutQuery() {
+        // Given
+        when(tableVersionRepository.increment(TableVersion.DOG, 1)).thenReturn(1);
+        when(tableVersionRepository.findVersion(TableVersion.DOG)).thenReturn(Optional.of(4L), Optional.of(5L));
+        tableVersionService.current(TableVersion.DOG);
+        tableVersionService.bump(TableVersion.DOG, 1);
+
+        // When
+        long latest = tableVersionService.latest(TableVersion.DOG);
+
+        // Then
+        assertEquals(5L, latest);
+        verify(tableVersionRepository, times(2)).findVersion(TableVersion.DOG);
+    }
+
+    @Test
+    void latest_ReadsVersion_WhenNoneSeen() {
+        // Given
+        when(tableVersionRepository.findVersion(TableVersion.DOG)).thenReturn(Optional.of(3L));
+
+        // When & Then
+        assertEquals(3L, tableVersionService.latest(TableVersion.DOG));
+    }
+
+    @Test
+    void current_ReturnsZero_WhenNeverChanged() {
+        // Given
+        when(tableVersionRepository.findVersion(TableVersion.DOG)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertEquals(0L, tableVersionService.current(TableVersion.DOG));
+    }
+}